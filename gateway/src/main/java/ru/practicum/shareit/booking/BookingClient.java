@@ -7,10 +7,17 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.MultiBookingRequestDto;
 import ru.practicum.shareit.client.BaseClient;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 @Service
@@ -31,27 +38,63 @@ public class BookingClient extends BaseClient {
         return post("", userId, bookingDto);
     }
 
+    public ResponseEntity<Object> createBookings(MultiBookingRequestDto request, long userId) {
+        return post("/multi", userId, request);
+    }
+
     public ResponseEntity<Object> approveBooking(long bookingId, long userId, boolean approved) {
         Map<String, Object> parameters = Map.of("approved", approved);
         return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
     }
 
-    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> approveBookings(List<BookingApprovalDto> approvals, long userId) {
+        return patch("/batch", userId, approvals);
+    }
+
+    public ResponseEntity<Object> createSeries(BookingSeriesRequestDto request, long userId) {
+        return post("/series", userId, request);
+    }
+
+    public ResponseEntity<Object> approveSeries(long seriesId, long userId, boolean approved) {
+        Map<String, Object> parameters = Map.of("approved", approved);
+        return patch("/series/" + seriesId + "?approved={approved}", userId, parameters, null);
+    }
+
+    public ResponseEntity<Object> getOccurrences(String path, long userId, LocalDateTime from, LocalDateTime to) {
         Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
+                "from", from.toString(),
+                "to", to.toString()
         );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+        return get(path + "?from={from}&to={to}", userId, parameters);
     }
 
-    public ResponseEntity<Object> getBookingsForUserItems(long userId, BookingState state, Integer from, Integer size) {
+    public ResponseEntity<Object> getStatsForUserItems(long userId, YearMonth from, YearMonth to) {
         Map<String, Object> parameters = Map.of(
+                "from", from.toString(),
+                "to", to.toString()
+        );
+        return get("/owner/stats?from={from}&to={to}", userId, parameters);
+    }
+
+    public ResponseEntity<Object> getBookings(long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return getPage("", userId, state, from, size, cursor);
+    }
+
+    public ResponseEntity<Object> getBookingsForUserItems(long userId, BookingState state, Integer from, Integer size, String cursor) {
+        return getPage("/owner", userId, state, from, size, cursor);
+    }
+
+    private ResponseEntity<Object> getPage(String path, long userId, BookingState state, Integer from, Integer size, String cursor) {
+        Map<String, Object> parameters = new HashMap<>(Map.of(
                 "state", state.name(),
                 "from", from,
                 "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+        ));
+        if (cursor == null) {
+            return get(path + "?state={state}&from={from}&size={size}", userId, parameters);
+        }
+        parameters.put("cursor", cursor);
+        return get(path + "?state={state}&from={from}&size={size}&cursor={cursor}", userId, parameters);
     }
 
     public ResponseEntity<Object> getBooking(long userId, Long bookingId) {
@@ -2,16 +2,25 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
 import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.booking.dto.MultiBookingRequestDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
 
 @Controller
 @RequestMapping(path = "/bookings")
@@ -28,6 +37,52 @@ public class BookingController {
         return bookingClient.createBooking(bookingDto, userId);
     }
 
+    @PostMapping("/multi")
+    public ResponseEntity<Object> createBookings(@Valid @RequestBody MultiBookingRequestDto request,
+                                                 @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Запрос POST к /bookings/multi");
+        return bookingClient.createBookings(request, userId);
+    }
+
+    @PostMapping("/series")
+    public ResponseEntity<Object> createSeries(@Valid @RequestBody BookingSeriesRequestDto request,
+                                               @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Запрос POST к /bookings/series");
+        return bookingClient.createSeries(request, userId);
+    }
+
+    @PatchMapping("/series/{seriesId}")
+    public ResponseEntity<Object> approveSeries(@PathVariable Long seriesId,
+                                                @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                @RequestParam Boolean approved) {
+        log.info(String.format("Запрос PATCH к /bookings/series/%d", seriesId));
+        return bookingClient.approveSeries(seriesId, userId, approved);
+    }
+
+    @GetMapping("/series")
+    public ResponseEntity<Object> getOccurrences(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                 @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Запрос GET к /bookings/series");
+        return bookingClient.getOccurrences("/series", userId, from, to);
+    }
+
+    @GetMapping("/owner/series")
+    public ResponseEntity<Object> getOccurrencesForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Запрос GET к /bookings/owner/series");
+        return bookingClient.getOccurrences("/owner/series", userId, from, to);
+    }
+
+    @GetMapping("/owner/stats")
+    public ResponseEntity<Object> getStatsForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestParam YearMonth from,
+                                                       @RequestParam YearMonth to) {
+        log.info("Запрос GET к /bookings/owner/stats");
+        return bookingClient.getStatsForUserItems(userId, from, to);
+    }
+
     @PatchMapping("/{bookingId}")
     public ResponseEntity<Object> approveBooking(@PathVariable Long bookingId,
                                                  @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -36,15 +91,23 @@ public class BookingController {
         return bookingClient.approveBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/batch")
+    public ResponseEntity<Object> approveBookings(@RequestBody @NotEmpty @Size(max = 500) List<@Valid BookingApprovalDto> approvals,
+                                                  @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Запрос PATCH к /bookings/batch, {} бронирований", approvals.size());
+        return bookingClient.approveBookings(approvals, userId);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getBookings(@RequestHeader("X-Sharer-User-Id") long userId,
                                               @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                               @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                              @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                              @RequestParam(name = "cursor", required = false) String cursor) {
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.getBookings(userId, state, from, size);
+        log.info("Get booking with state {}, userId={}, from={}, size={}, cursor={}", stateParam, userId, from, size, cursor);
+        return bookingClient.getBookings(userId, state, from, size, cursor);
     }
 
     @GetMapping("/{bookingId}")
@@ -58,11 +121,12 @@ public class BookingController {
     public ResponseEntity<Object> getAllBookingsForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                              @RequestParam(name = "state", defaultValue = "all") String stateParam,
                                                              @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-                                                             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size) {
+                                                             @Positive @RequestParam(name = "size", defaultValue = "10") Integer size,
+                                                             @RequestParam(name = "cursor", required = false) String cursor) {
         log.info("Запрос GET к /owner");
         BookingState state = BookingState.from(stateParam)
                 .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
 
-        return bookingClient.getBookingsForUserItems(userId, state, from, size);
+        return bookingClient.getBookingsForUserItems(userId, state, from, size, cursor);
     }
 }
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+import javax.validation.constraints.Future;
+import javax.validation.constraints.FutureOrPresent;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import java.time.LocalDateTime;
+
+@Data
+public class BookingSeriesRequestDto {
+    @NotNull
+    private Long itemId;
+    @NotNull
+    @FutureOrPresent
+    private LocalDateTime start;
+    @NotNull
+    @Future
+    private LocalDateTime end;
+    @NotNull
+    private SeriesFrequency frequency;
+    @NotNull
+    @Positive
+    @Max(52)
+    private Integer interval;
+    @NotNull
+    @Future
+    private LocalDateTime until;
+}
@@ -0,0 +1,6 @@
+package ru.practicum.shareit.booking.dto;
+
+public enum SeriesFrequency {
+    DAILY,
+    WEEKLY
+}
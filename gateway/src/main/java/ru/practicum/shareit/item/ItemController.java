@@ -3,13 +3,16 @@ package ru.practicum.shareit.item;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.exceptions.IncorrectParamException;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 
 import javax.validation.Valid;
 import javax.validation.constraints.Min;
+import java.time.LocalDateTime;
 
 @RestController
 @RequestMapping("/items")
@@ -36,6 +39,14 @@ public class ItemController {
         return itemClient.getItemById(itemId, userId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> getAvailability(@PathVariable long itemId, @RequestHeader("X-Sharer-User-Id") Long userId,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                                  @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info(String.format("Запрос GET к /items/%d/availability", itemId));
+        return itemClient.getAvailability(itemId, userId, from, to);
+    }
+
     @GetMapping
     public ResponseEntity<Object> getAllUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                   @RequestParam(required = false, defaultValue = "0") @Min(0) int from,
@@ -52,6 +63,15 @@ public class ItemController {
         return itemClient.searchItemsByName(text, userId, from, size);
     }
 
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggest(@RequestParam String prefix, @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Запрос GET к /items/suggest");
+        if (prefix.isBlank()) {
+            throw new IncorrectParamException("Префикс не должен быть пустым");
+        }
+        return itemClient.suggest(prefix, userId);
+    }
+
     @PostMapping("/{itemId}/comment")
     public ResponseEntity<Object> addComment(@RequestHeader("X-Sharer-User-Id") Long userId,
                                              @PathVariable Long itemId,
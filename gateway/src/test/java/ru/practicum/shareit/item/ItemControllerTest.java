@@ -0,0 +1,55 @@
+package ru.practicum.shareit.item;
+
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ItemController.class)
+class ItemControllerTest {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private ItemClient itemClient;
+
+    @Test
+    @SneakyThrows
+    void getAllUserItems() {
+        when(itemClient.getUserItems(anyLong(), anyInt(), anyInt())).thenReturn(ResponseEntity.ok(List.of()));
+
+        mvc.perform(get("/items")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("from", "5")
+                        .param("size", "10"))
+                .andExpect(status().isOk());
+
+        verify(itemClient).getUserItems(1L, 5, 10);
+    }
+
+    @Test
+    @SneakyThrows
+    void suggest_whenPrefixBlank_thenBadRequest() {
+        mvc.perform(get("/items/suggest")
+                        .header("X-Sharer-User-Id", 1L)
+                        .param("prefix", " "))
+                .andExpect(status().isBadRequest());
+
+        verify(itemClient, never()).suggest(anyString(), anyLong());
+    }
+}
@@ -3,11 +3,25 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
+import ru.practicum.shareit.booking.dto.ItemBookingStatsDto;
+import ru.practicum.shareit.booking.dto.MultiBookingRequestDto;
+import ru.practicum.shareit.booking.service.BookingSeriesService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingStatsService;
 
+import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 @RestController
@@ -15,7 +29,11 @@ import java.util.List;
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
 @Slf4j
 public class BookingController {
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final BookingService bookingService;
+    private final BookingSeriesService bookingSeriesService;
+    private final BookingStatsService bookingStatsService;
 
     @PostMapping
     public BookingDto createBooking(@RequestBody BookingRequestDto bookingDto,
@@ -24,6 +42,54 @@ public class BookingController {
         return bookingService.createBooking(bookingDto, userId);
     }
 
+    @PostMapping("/multi")
+    public List<BookingDto> createBookings(@RequestBody MultiBookingRequestDto request,
+                                           @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Запрос POST к /bookings/multi");
+        return bookingService.createBookings(request, userId);
+    }
+
+    @PostMapping("/series")
+    public BookingSeriesDto createSeries(@RequestBody BookingSeriesRequestDto request,
+                                         @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Запрос POST к /bookings/series");
+        return bookingSeriesService.createSeries(request, userId);
+    }
+
+    @PatchMapping("/series/{seriesId}")
+    public BookingSeriesDto approveSeries(@PathVariable Long seriesId,
+                                          @RequestHeader("X-Sharer-User-Id") Long userId,
+                                          @RequestParam Boolean approved) {
+        log.info(String.format("Запрос PATCH к /bookings/series/%d", seriesId));
+        return bookingSeriesService.approveSeries(seriesId, userId, approved);
+    }
+
+    @GetMapping("/series")
+    public List<BookingOccurrenceDto> getOccurrencesByUserId(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Запрос GET к /bookings/series");
+        return bookingSeriesService.getOccurrencesByUserId(userId, from, to);
+    }
+
+    @GetMapping("/owner/series")
+    public List<BookingOccurrenceDto> getOccurrencesForUserItems(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.info("Запрос GET к /bookings/owner/series");
+        return bookingSeriesService.getOccurrencesForUserItems(userId, from, to);
+    }
+
+    @GetMapping("/owner/stats")
+    public List<ItemBookingStatsDto> getStatsForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                          @RequestParam YearMonth from,
+                                                          @RequestParam YearMonth to) {
+        log.info("Запрос GET к /bookings/owner/stats");
+        return bookingStatsService.getStatsForUserItems(userId, from, to);
+    }
+
     @PatchMapping("/{bookingId}")
     public BookingDto approveBooking(@PathVariable Long bookingId,
                                      @RequestHeader("X-Sharer-User-Id") Long userId,
@@ -32,6 +98,13 @@ public class BookingController {
         return bookingService.approveBooking(bookingId, userId, approved);
     }
 
+    @PatchMapping("/batch")
+    public List<BookingApprovalResultDto> approveBookings(@RequestBody List<BookingApprovalDto> approvals,
+                                                          @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Запрос PATCH к /bookings/batch, {} бронирований", approvals.size());
+        return bookingService.approveBookings(approvals, userId);
+    }
+
     @GetMapping("/{bookingId}")
     public BookingDto getBookingById(@PathVariable Long bookingId,
                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -40,20 +113,36 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                   @RequestParam(defaultValue = "ALL") String state,
-                                                   @RequestParam(defaultValue = "0") int from,
-                                                   @RequestParam(defaultValue = "20") int size) {
+    public ResponseEntity<List<BookingDto>> getAllBookingsByUserId(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                   @RequestParam(defaultValue = "ALL") String state,
+                                                                   @RequestParam(defaultValue = "0") int from,
+                                                                   @RequestParam(defaultValue = "20") int size,
+                                                                   @RequestParam(required = false) String cursor) {
         log.info("Запрос GET к /bookings");
-        return bookingService.getAllBookingsByUserId(userId, state, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllBookingsByUserId(userId, state, from, size));
+        }
+        return toResponse(bookingService.getBookingsByUserIdAfter(userId, state, cursor, size));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getAllBookingsForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
-                                                       @RequestParam(defaultValue = "ALL") String state,
-                                                       @RequestParam(defaultValue = "0") int from,
-                                                       @RequestParam(defaultValue = "20") int size) {
+    public ResponseEntity<List<BookingDto>> getAllBookingsForUserItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                                       @RequestParam(defaultValue = "ALL") String state,
+                                                                       @RequestParam(defaultValue = "0") int from,
+                                                                       @RequestParam(defaultValue = "20") int size,
+                                                                       @RequestParam(required = false) String cursor) {
         log.info("Запрос GET к /owner");
-        return bookingService.getAllBookingsForUserItems(userId, state, from, size);
+        if (cursor == null) {
+            return ResponseEntity.ok(bookingService.getAllBookingsForUserItems(userId, state, from, size));
+        }
+        return toResponse(bookingService.getBookingsForUserItemsAfter(userId, state, cursor, size));
+    }
+
+    private ResponseEntity<List<BookingDto>> toResponse(BookingPage page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getBookings());
     }
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dao;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Последнее или ближайшее подтверждённое бронирование вещи.
+ */
+@Getter
+@AllArgsConstructor
+public class AdjacentBooking {
+    private final Long id;
+    private final Long itemId;
+    private final Long bookerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final boolean next;
+}
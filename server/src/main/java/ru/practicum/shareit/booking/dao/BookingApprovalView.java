@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public interface BookingApprovalView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getOwnerId();
+
+    BookingStatus getStatus();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
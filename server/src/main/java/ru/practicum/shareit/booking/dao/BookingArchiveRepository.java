@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BookingArchiveRepository extends JpaRepository<ArchivedBooking, Long>, BookingArchiveRepositoryCustom {
+    boolean existsByBookerIdAndItemIdAndEndBefore(Long booker, Long item, LocalDateTime end);
+
+    @Query("select b.id as id, b.item.id as itemId, b.status as status, b.start as startDate, b.end as endDate " +
+            "from ArchivedBooking b where b.id > :afterId order by b.id")
+    List<BookingStatsView> findStatsViewsAfter(@Param("afterId") long afterId, Pageable pageable);
+}
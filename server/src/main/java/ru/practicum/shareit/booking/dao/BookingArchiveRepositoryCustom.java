@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dao;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public interface BookingArchiveRepositoryCustom {
+    /**
+     * Копирует бронирования в архив одним INSERT ... SELECT. Запрос объявляет, что меняет только bookings_archive,
+     * поэтому Hibernate не очищает из-за него весь кэш второго уровня.
+     */
+    int copyFromBookings(Collection<Long> ids, LocalDateTime now);
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.hibernate.query.NativeQuery;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+public class BookingArchiveRepositoryImpl implements BookingArchiveRepositoryCustom {
+    private static final String COPY_SQL = "INSERT INTO bookings_archive " +
+            "(id, start_date, end_date, item_id, booker_id, owner_id, status, archived) " +
+            "SELECT id, start_date, end_date, item_id, booker_id, owner_id, status, :now FROM bookings WHERE id IN (:ids)";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public int copyFromBookings(Collection<Long> ids, LocalDateTime now) {
+        Query query = entityManager.createNativeQuery(COPY_SQL)
+                .setParameter("ids", ids)
+                .setParameter("now", now);
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(ArchivedBooking.class);
+        return query.executeUpdate();
+    }
+}
@@ -1,41 +1,81 @@
 package ru.practicum.shareit.booking.dao;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
 import ru.practicum.shareit.booking.model.BookingStatus;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface BookingRepository extends JpaRepository<Booking, Long> {
-    Page<Booking> findByBookerIdOrderByStartDesc(long userId, Pageable pageable);
+public interface BookingRepository extends JpaRepository<Booking, Long>, BookingRepositoryCustom {
+    List<Booking> findByBookerIdAndItemIdAndEndBefore(Long booker, Long item, LocalDateTime start);
 
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(Long booker, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query("select b.item.id from Booking b where b.id = :bookingId")
+    Optional<Long> findItemIdById(@Param("bookingId") Long bookingId);
 
-    List<Booking> findByBookerIdAndStartAfterAndEndAfterOrderByStartDesc(Long booker, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query("select b.id as id, b.item.id as itemId, b.start as startDate, b.end as endDate from Booking b " +
+            "where b.status in :statuses and b.end > :now")
+    List<BookingSlot> findSlotsByStatusInAndEndAfter(@Param("statuses") Collection<BookingStatus> statuses,
+                                                     @Param("now") LocalDateTime now);
 
-    List<Booking> findByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(Long booker, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query("select b.id as id, b.item.id as itemId, b.start as startDate, b.end as endDate from Booking b " +
+            "where b.end > :now")
+    List<BookingSlot> findSlotsByEndAfter(@Param("now") LocalDateTime now);
 
-    List<Booking> findByBookerIdAndStatusOrderByStartDesc(Long booker, BookingStatus status, Pageable pageable);
+    @Modifying
+    @Transactional
+    @Query("update Booking b set b.lifecycle = :lifecycle, b.version = b.version + 1 where b.id in :ids " +
+            "and (b.lifecycle is null or b.lifecycle <> ru.practicum.shareit.booking.model.BookingLifecycle.PAST)")
+    int updateLifecycle(@Param("ids") Collection<Long> ids, @Param("lifecycle") BookingLifecycle lifecycle);
 
-    List<Booking> findByItemOwnerIdOrderByStartDesc(Long booker, Pageable pageable);
+    @Query("select b.id from Booking b where b.end <= :now and (b.lifecycle is null " +
+            "or b.lifecycle <> ru.practicum.shareit.booking.model.BookingLifecycle.PAST) order by b.id")
+    List<Long> findIdsOfEnded(@Param("now") LocalDateTime now, Pageable pageable);
 
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(Long booker, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query("select b.id from Booking b where b.start <= :now and b.end > :now and (b.lifecycle is null " +
+            "or b.lifecycle = ru.practicum.shareit.booking.model.BookingLifecycle.FUTURE) order by b.id")
+    List<Long> findIdsOfStarted(@Param("now") LocalDateTime now, Pageable pageable);
 
-    List<Booking> findByItemOwnerIdAndStartAfterAndEndAfterOrderByStartDesc(Long booker, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query("select b.id as id, b.item.id as itemId, b.start as startDate, b.end as endDate from Booking b " +
+            "where b.status = :status and b.start < :now order by b.start")
+    List<BookingSlot> findSlotsByStatusAndStartBefore(@Param("status") BookingStatus status,
+                                                      @Param("now") LocalDateTime now,
+                                                      Pageable pageable);
 
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndBeforeOrderByStartDesc(Long booker, LocalDateTime start, LocalDateTime end, Pageable pageable);
+    @Query("select min(b.start) from Booking b where b.status = :status and b.start < :now")
+    Optional<LocalDateTime> findMinStartByStatusAndStartBefore(@Param("status") BookingStatus status,
+                                                               @Param("now") LocalDateTime now);
 
-    List<Booking> findByItemOwnerIdAndStatusOrderByStartDesc(Long booker, BookingStatus status, Pageable pageable);
+    @Query("select b.id from Booking b where b.id in :ids and b.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
 
-    Optional<Booking> findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(Long item, LocalDateTime start, BookingStatus status);
+    @Modifying
+    @Query("update Booking b set b.status = :to, b.version = b.version + 1 where b.id in :ids and b.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") BookingStatus from, @Param("to") BookingStatus to);
 
-    Optional<Booking> findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(Long item, LocalDateTime start, BookingStatus status);
+    @Query("select b.id as id, b.item.id as itemId, b.ownerId as ownerId, b.status as status, b.start as startDate, " +
+            "b.end as endDate from Booking b where b.id in :ids")
+    List<BookingApprovalView> findApprovalViewsByIdIn(@Param("ids") Collection<Long> ids);
 
-    List<Booking> findByBookerIdAndItemIdAndEndBefore(Long booker, Long item, LocalDateTime start);
+    @Query("select b.id as id, b.item.id as itemId, b.start as startDate, b.end as endDate from Booking b " +
+            "where b.end < :cutoff order by b.end")
+    List<BookingSlot> findSlotsByEndBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Query("select b.id as id, b.item.id as itemId, b.status as status, b.start as startDate, b.end as endDate " +
+            "from Booking b where b.id > :afterId order by b.id")
+    List<BookingStatsView> findStatsViewsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Modifying
+    @Query("delete from Booking b where b.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface BookingRepositoryCustom {
+    /**
+     * Бронирования пользователя в роли арендатора или владельца вещи, отобранные по состоянию.
+     * Состояния CURRENT, FUTURE и PAST берутся из сохранённого lifecycle, а не из сравнения дат с текущим временем.
+     * Вещь, её владелец, запрос и арендатор подгружаются тем же запросом.
+     * Если передан курсор, выборка начинается после него, иначе пропускается offset строк.
+     * PAST читает и bookings, и архив; остальные состояния видят только bookings.
+     */
+    List<Booking> findBookings(BookingRole role, Long userId, BookingState state, BookingCursor cursor,
+                               int offset, int limit);
+
+    /**
+     * Для каждой вещи из itemIds - последнее начавшееся и ближайшее будущее подтверждённое бронирование.
+     * Один запрос с ROW_NUMBER() по вещи; последнее ищется и в bookings, и в архиве.
+     */
+    List<AdjacentBooking> findLastAndNextApproved(Collection<Long> itemIds, LocalDateTime now);
+}
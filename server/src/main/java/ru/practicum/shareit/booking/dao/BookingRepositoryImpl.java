@@ -0,0 +1,155 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.dto.BookingCursor;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class BookingRepositoryImpl implements BookingRepositoryCustom {
+    private static final Comparator<Booking> BY_START_DESC = Comparator.comparing(Booking::getStart)
+            .thenComparing(Booking::getId)
+            .reversed();
+
+    private static final String LAST_AND_NEXT_SQL = "SELECT id, item_id, booker_id, start_date, end_date, is_next FROM (" +
+            "SELECT b.*, ROW_NUMBER() OVER (PARTITION BY b.item_id, b.is_next " +
+            "ORDER BY CASE WHEN b.is_next = 1 THEN b.start_date END, b.start_date DESC, b.id) AS rn FROM (" +
+            "SELECT id, item_id, booker_id, start_date, end_date, " +
+            "CASE WHEN start_date > :now THEN 1 ELSE 0 END AS is_next FROM bookings " +
+            "WHERE item_id IN (:itemIds) AND status = 'APPROVED' AND start_date <> :now " +
+            "UNION ALL " +
+            "SELECT id, item_id, booker_id, start_date, end_date, 0 AS is_next FROM bookings_archive " +
+            "WHERE item_id IN (:itemIds) AND status = 'APPROVED' AND start_date < :now" +
+            ") b) ranked WHERE rn = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<Booking> findBookings(BookingRole role, Long userId, BookingState state, BookingCursor cursor,
+                                      int offset, int limit) {
+        if (state == BookingState.PAST) {
+            return findPastBookings(role, userId, cursor, offset, limit);
+        }
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = selectFor("Booking", role, userId, parameters);
+
+        switch (state) {
+            case CURRENT:
+                jpql.append(" and b.lifecycle = :lifecycle");
+                parameters.put("lifecycle", BookingLifecycle.CURRENT);
+                break;
+            case FUTURE:
+                jpql.append(" and b.lifecycle = :lifecycle");
+                parameters.put("lifecycle", BookingLifecycle.FUTURE);
+                break;
+            case WAITING:
+                jpql.append(" and b.status = :status");
+                parameters.put("status", BookingStatus.WAITING);
+                break;
+            case REJECTED:
+                jpql.append(" and b.status = :status");
+                parameters.put("status", BookingStatus.REJECTED);
+                break;
+        }
+        return query(Booking.class, jpql, parameters, cursor, isAscending(role, state), offset, limit);
+    }
+
+    /**
+     * Завершённые бронирования лежат в двух таблицах: ещё не перенесённые в bookings и архивные в bookings_archive.
+     * Из каждой берётся offset + limit строк в общем порядке, результаты сливаются.
+     */
+    private List<Booking> findPastBookings(BookingRole role, Long userId, BookingCursor cursor, int offset, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder hot = selectFor("Booking", role, userId, parameters).append(" and b.lifecycle = :lifecycle");
+        parameters.put("lifecycle", BookingLifecycle.PAST);
+        List<Booking> merged = new ArrayList<>(query(Booking.class, hot, parameters, cursor, false, 0, offset + limit));
+
+        Map<String, Object> archiveParameters = new HashMap<>();
+        StringBuilder archive = selectFor("ArchivedBooking", role, userId, archiveParameters);
+        query(ArchivedBooking.class, archive, archiveParameters, cursor, false, 0, offset + limit).stream()
+                .map(ArchivedBooking::toBooking)
+                .forEach(merged::add);
+
+        return merged.stream()
+                .sorted(BY_START_DESC)
+                .skip(offset)
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public List<AdjacentBooking> findLastAndNextApproved(Collection<Long> itemIds, LocalDateTime now) {
+        if (itemIds.isEmpty()) {
+            return List.of();
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(LAST_AND_NEXT_SQL)
+                .setParameter("itemIds", itemIds)
+                .setParameter("now", now)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new AdjacentBooking(
+                        ((Number) row[0]).longValue(),
+                        ((Number) row[1]).longValue(),
+                        ((Number) row[2]).longValue(),
+                        ((Timestamp) row[3]).toLocalDateTime(),
+                        ((Timestamp) row[4]).toLocalDateTime(),
+                        ((Number) row[5]).intValue() == 1))
+                .collect(Collectors.toList());
+    }
+
+    private StringBuilder selectFor(String entity, BookingRole role, Long userId, Map<String, Object> parameters) {
+        StringBuilder jpql = new StringBuilder("select b from " + entity + " b " +
+                "join fetch b.item i " +
+                "left join fetch i.owner o " +
+                "join fetch b.booker bk " +
+                "left join fetch i.request r " +
+                "left join fetch r.requestor " +
+                "where ");
+        jpql.append(role == BookingRole.OWNER ? "b.ownerId = :userId" : "b.booker.id = :userId");
+        parameters.put("userId", userId);
+        return jpql;
+    }
+
+    private <T> List<T> query(Class<T> type, StringBuilder jpql, Map<String, Object> parameters, BookingCursor cursor,
+                              boolean ascending, int offset, int limit) {
+        if (cursor != null) {
+            String comparison = ascending ? ">" : "<";
+            jpql.append(String.format(" and (b.start %1$s :cursorStart or (b.start = :cursorStart and b.id %1$s :cursorId))",
+                    comparison));
+            parameters.put("cursorStart", cursor.getStart());
+            parameters.put("cursorId", cursor.getId());
+        }
+        String direction = ascending ? "asc" : "desc";
+        jpql.append(String.format(" order by b.start %1$s, b.id %1$s", direction));
+
+        TypedQuery<T> query = entityManager.createQuery(jpql.toString(), type);
+        parameters.forEach(query::setParameter);
+        return query.setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * Текущие бронирования арендатора исторически отдаются от ранних к поздним, остальные списки - от поздних к ранним.
+     */
+    static boolean isAscending(BookingRole role, BookingState state) {
+        return role == BookingRole.BOOKER && state == BookingState.CURRENT;
+    }
+}
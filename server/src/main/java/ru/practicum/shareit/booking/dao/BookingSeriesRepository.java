@@ -0,0 +1,58 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.booking.model.BookingSeries;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BookingSeriesRepository extends JpaRepository<BookingSeries, Long> {
+    @Query("select s from BookingSeries s where s.item.id in :itemIds and s.status in :statuses and s.lastEnd > :now")
+    List<BookingSeries> findBlocking(@Param("itemIds") Collection<Long> itemIds,
+                                     @Param("statuses") Collection<BookingStatus> statuses,
+                                     @Param("now") LocalDateTime now);
+
+    @Query("select s from BookingSeries s join fetch s.item join fetch s.booker " +
+            "where s.booker.id = :userId and s.start < :to and s.lastEnd > :from")
+    List<BookingSeries> findByBookerInWindow(@Param("userId") Long userId,
+                                             @Param("from") LocalDateTime from,
+                                             @Param("to") LocalDateTime to);
+
+    @Query("select s from BookingSeries s join fetch s.item join fetch s.booker " +
+            "where s.ownerId = :userId and s.start < :to and s.lastEnd > :from")
+    List<BookingSeries> findByOwnerInWindow(@Param("userId") Long userId,
+                                            @Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to);
+
+    @Query("select s from BookingSeries s join fetch s.item i left join fetch i.owner left join fetch i.request r " +
+            "left join fetch r.requestor join fetch s.booker where s.status in :statuses and s.lastEnd > :now")
+    List<BookingSeries> findActive(@Param("statuses") Collection<BookingStatus> statuses,
+                                   @Param("now") LocalDateTime now);
+
+    @Query("select s.item.id from BookingSeries s where s.id = :seriesId")
+    Optional<Long> findItemIdById(@Param("seriesId") Long seriesId);
+
+    @Query("select s from BookingSeries s where s.status = :status and s.start < :now order by s.start")
+    List<BookingSeries> findByStatusAndStartBefore(@Param("status") BookingStatus status,
+                                                   @Param("now") LocalDateTime now,
+                                                   Pageable pageable);
+
+    @Query("select s.id from BookingSeries s where s.id in :ids and s.status = :status")
+    List<Long> findIdsByIdInAndStatus(@Param("ids") Collection<Long> ids, @Param("status") BookingStatus status);
+
+    @Modifying
+    @Query("update BookingSeries s set s.status = :to, s.version = s.version + 1 where s.id in :ids and s.status = :from")
+    int updateStatus(@Param("ids") Collection<Long> ids, @Param("from") BookingStatus from, @Param("to") BookingStatus to);
+
+    @Query("select s from BookingSeries s where s.id > :afterId order by s.id")
+    List<BookingSeries> findAfter(@Param("afterId") long afterId, Pageable pageable);
+}
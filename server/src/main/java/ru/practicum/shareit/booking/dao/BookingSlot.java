@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dao;
+
+import java.time.LocalDateTime;
+
+public interface BookingSlot {
+    Long getId();
+
+    Long getItemId();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
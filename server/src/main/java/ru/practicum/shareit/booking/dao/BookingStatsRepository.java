@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import ru.practicum.shareit.booking.model.BookingStats;
+import ru.practicum.shareit.booking.model.BookingStatsId;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface BookingStatsRepository extends JpaRepository<BookingStats, BookingStatsId> {
+    @Query("select s from BookingStats s " +
+            "where s.id.itemId in (select i.id from Item i where i.owner.id = :ownerId) " +
+            "and s.id.month between :from and :to " +
+            "order by s.id.itemId, s.id.month")
+    List<BookingStats> findByOwnerIdAndMonthBetween(@Param("ownerId") Long ownerId,
+                                                    @Param("from") LocalDate from,
+                                                    @Param("to") LocalDate to);
+}
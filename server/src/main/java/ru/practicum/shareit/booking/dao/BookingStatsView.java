@@ -0,0 +1,17 @@
+package ru.practicum.shareit.booking.dao;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+public interface BookingStatsView {
+    Long getId();
+
+    Long getItemId();
+
+    BookingStatus getStatus();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+}
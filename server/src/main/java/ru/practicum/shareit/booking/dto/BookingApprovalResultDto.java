@@ -0,0 +1,26 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+/**
+ * Итог по одному бронированию из пакета: новый статус либо причина отказа.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingApprovalResultDto {
+    private Long bookingId;
+    private BookingStatus status;
+    private String error;
+
+    public static BookingApprovalResultDto applied(Long bookingId, BookingStatus status) {
+        return new BookingApprovalResultDto(bookingId, status, null);
+    }
+
+    public static BookingApprovalResultDto failed(Long bookingId, String error) {
+        return new BookingApprovalResultDto(bookingId, null, error);
+    }
+}
@@ -2,6 +2,7 @@ package ru.practicum.shareit.booking.dto;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import ru.practicum.shareit.booking.dao.AdjacentBooking;
 import ru.practicum.shareit.booking.model.Booking;
 
 @Mapper(componentModel = "spring")
@@ -10,4 +11,7 @@ public interface BookingMapper {
 
     @Mapping(target = "bookerId", source = "booker.id")
     BookingForItemDto bookingToBookingItemDto(Booking booking);
+
+    @Mapping(target = "status", constant = "APPROVED")
+    BookingForItemDto adjacentToBookingItemDto(AdjacentBooking booking);
 }
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.SeriesFrequency;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BookingSeriesDto {
+    private Long id;
+    private Long itemId;
+    private Long bookerId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private SeriesFrequency frequency;
+    private int interval;
+    private LocalDateTime until;
+    private BookingStatus status;
+}
@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.dto;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import ru.practicum.shareit.booking.model.BookingSeries;
+
+@Mapper(componentModel = "spring")
+public interface BookingSeriesMapper {
+    @Mapping(target = "itemId", source = "item.id")
+    @Mapping(target = "bookerId", source = "booker.id")
+    BookingSeriesDto seriesToDto(BookingSeries series);
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+import ru.practicum.shareit.booking.model.SeriesFrequency;
+
+import java.time.LocalDateTime;
+
+@Data
+public class BookingSeriesRequestDto {
+    private Long itemId;
+    private LocalDateTime start;
+    private LocalDateTime end;
+    private SeriesFrequency frequency;
+    private Integer interval;
+    private LocalDateTime until;
+}
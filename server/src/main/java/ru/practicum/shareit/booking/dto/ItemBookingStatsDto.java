@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+public class ItemBookingStatsDto {
+    private Long itemId;
+    private long bookings;
+    private long waiting;
+    private long approved;
+    private long rejected;
+    private long expired;
+    /**
+     * Доля подтверждённых среди рассмотренных владельцем, null, если рассмотренных нет.
+     */
+    private Double approvalRate;
+    private double bookedHours;
+    private List<MonthlyBookingStatsDto> months = new ArrayList<>();
+}
@@ -0,0 +1,19 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.YearMonth;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MonthlyBookingStatsDto {
+    private YearMonth month;
+    private long bookings;
+    private long approved;
+    private long rejected;
+    private long expired;
+    private double bookedHours;
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+public class MultiBookingRequestDto {
+    private List<Long> itemIds;
+    private LocalDateTime start;
+    private LocalDateTime end;
+}
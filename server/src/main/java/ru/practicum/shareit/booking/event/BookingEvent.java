@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Изменение бронирования. Содержит только идентификаторы, подписчики при необходимости перечитывают данные.
+ * У событий серии bookingId пуст, а заполнен seriesId.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookingEvent {
+    private Long bookingId;
+    private Long itemId;
+    private BookingEventType type;
+    private LocalDateTime occurredAt;
+    private Long seriesId;
+
+    public BookingEvent(Long bookingId, Long itemId, BookingEventType type, LocalDateTime occurredAt) {
+        this(bookingId, itemId, type, occurredAt, null);
+    }
+
+    public static BookingEvent ofSeries(Long seriesId, Long itemId, BookingEventType type, LocalDateTime occurredAt) {
+        return new BookingEvent(null, itemId, type, occurredAt, seriesId);
+    }
+}
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Шина событий внутри процесса. События одной вещи всегда обрабатывает один и тот же поток,
+ * поэтому подписчики получают их в порядке записи; разные вещи обрабатываются параллельно.
+ */
+@Component
+@Slf4j
+public class BookingEventBus {
+    private final List<BookingEventListener> listeners;
+    private final ExecutorService[] lanes;
+
+    @Autowired
+    public BookingEventBus(ObjectProvider<BookingEventListener> listeners,
+                           @Value("${shareit.outbox.threads:4}") int threads) {
+        this.listeners = listeners.orderedStream().collect(Collectors.toList());
+        this.lanes = new ExecutorService[threads];
+        for (int i = 0; i < threads; i++) {
+            lanes[i] = Executors.newSingleThreadExecutor();
+        }
+    }
+
+    /**
+     * Доставляет события вещи по порядку и останавливается на первом сбое.
+     * Возвращает, сколько событий с начала списка доставлено всем подписчикам.
+     */
+    public CompletableFuture<Delivery> deliver(long itemId, List<BookingEvent> events) {
+        return CompletableFuture.supplyAsync(() -> {
+            int delivered = 0;
+            for (BookingEvent event : events) {
+                try {
+                    listeners.forEach(listener -> listener.onEvent(event));
+                } catch (RuntimeException e) {
+                    log.warn("Не удалось доставить событие {} бронирования {}: {}", event.getType(),
+                            event.getBookingId(), e.getMessage());
+                    return new Delivery(delivered, e.toString());
+                }
+                delivered++;
+            }
+            return new Delivery(delivered, null);
+        }, lanes[Math.floorMod(Long.hashCode(itemId), lanes.length)]);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ExecutorService lane : lanes) {
+            lane.shutdown();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Delivery {
+        private final int delivered;
+        private final String error;
+    }
+}
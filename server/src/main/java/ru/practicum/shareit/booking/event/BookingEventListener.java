@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.event;
+
+/**
+ * Подписчик на изменения бронирований. События одной вещи приходят по порядку,
+ * но доставка «хотя бы один раз»: после сбоя событие может прийти повторно.
+ */
+public interface BookingEventListener {
+    void onEvent(BookingEvent event);
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingEventMetrics implements BookingEventListener {
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public void onEvent(BookingEvent event) {
+        Counter.builder("shareit.bookings.events")
+                .description("Доставленные события бронирований")
+                .tag("type", event.getType().name())
+                .register(meterRegistry)
+                .increment();
+    }
+}
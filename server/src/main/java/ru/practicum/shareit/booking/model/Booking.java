@@ -18,7 +18,8 @@ import java.time.LocalDateTime;
 @Builder
 public class Booking {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bookings_seq")
+    @SequenceGenerator(name = "bookings_seq", sequenceName = "bookings_seq", allocationSize = 50)
     private Long id;
     @Column(name = "start_date")
     private LocalDateTime start;
@@ -32,4 +33,26 @@ public class Booking {
     private User booker;
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
+    /**
+     * Копия владельца вещи, чтобы списки владельца не соединяли bookings с items.
+     */
+    @Column(name = "owner_id")
+    private Long ownerId;
+    /**
+     * Положение бронирования во времени. Обновляется планировщиком в моменты начала и окончания.
+     */
+    @Enumerated(EnumType.STRING)
+    private BookingLifecycle lifecycle;
+    @Version
+    private long version;
+
+    @PrePersist
+    void fillDerivedFields() {
+        if (ownerId == null && item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+        if (lifecycle == null && start != null && end != null) {
+            lifecycle = BookingLifecycle.at(start, end, LocalDateTime.now());
+        }
+    }
 }
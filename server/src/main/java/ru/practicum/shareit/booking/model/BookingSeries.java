@@ -0,0 +1,64 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Повторяющееся бронирование одной строкой: первое вхождение, частота и дата, после которой вхождения не начинаются.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "booking_series")
+@Builder
+public class BookingSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    @ManyToOne
+    @JoinColumn(name = "item_id", nullable = false)
+    private Item item;
+    @ManyToOne
+    @JoinColumn(name = "booker_id", nullable = false)
+    private User booker;
+    @Column(name = "owner_id")
+    private Long ownerId;
+    @Column(name = "start_date")
+    private LocalDateTime start;
+    @Column(name = "end_date")
+    private LocalDateTime end;
+    @Enumerated(EnumType.STRING)
+    private SeriesFrequency frequency;
+    @Column(name = "repeat_interval")
+    private int interval;
+    @Column(name = "until_date")
+    private LocalDateTime until;
+    @Column(name = "last_end_date")
+    private LocalDateTime lastEnd;
+    @Enumerated(EnumType.STRING)
+    private BookingStatus status;
+    @Version
+    private Long version;
+
+    @PrePersist
+    void fillDerivedFields() {
+        if (ownerId == null && item != null && item.getOwner() != null) {
+            ownerId = item.getOwner().getId();
+        }
+        if (lastEnd == null) {
+            lastEnd = toRecurrence().lastEnd();
+        }
+    }
+
+    public Recurrence toRecurrence() {
+        return new Recurrence(start, end, frequency.period(interval), until);
+    }
+}
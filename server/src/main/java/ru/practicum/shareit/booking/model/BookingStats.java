@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+
+/**
+ * Счётчики бронирований вещи за месяц. Бронирование учитывается в месяце своего начала,
+ * подтверждённые минуты делятся между месяцами, которые бронирование задевает.
+ */
+@Data
+@NoArgsConstructor
+@Entity
+@Table(name = "booking_stats")
+public class BookingStats {
+    @EmbeddedId
+    private BookingStatsId id;
+    private long waiting;
+    private long approved;
+    private long rejected;
+    private long canceled;
+    private long expired;
+    @Column(name = "booked_minutes")
+    private long bookedMinutes;
+    @Version
+    private Long version;
+
+    public BookingStats(BookingStatsId id) {
+        this.id = id;
+    }
+
+    /**
+     * Счётчик не уходит ниже нуля: списание бронирования, не попавшего в счётчики, ничего не меняет.
+     */
+    public void add(BookingStatus status, long delta) {
+        switch (status) {
+            case WAITING:
+                waiting = atLeastZero(waiting + delta);
+                break;
+            case APPROVED:
+                approved = atLeastZero(approved + delta);
+                break;
+            case REJECTED:
+                rejected = atLeastZero(rejected + delta);
+                break;
+            case CANCELED:
+                canceled = atLeastZero(canceled + delta);
+                break;
+            case EXPIRED:
+                expired = atLeastZero(expired + delta);
+                break;
+        }
+    }
+
+    public void addBookedMinutes(long delta) {
+        bookedMinutes = atLeastZero(bookedMinutes + delta);
+    }
+
+    public long total() {
+        return waiting + approved + rejected + canceled + expired;
+    }
+
+    private static long atLeastZero(long value) {
+        return Math.max(0, value);
+    }
+}
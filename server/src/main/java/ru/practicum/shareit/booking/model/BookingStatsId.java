@@ -0,0 +1,24 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+import java.io.Serializable;
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Embeddable
+public class BookingStatsId implements Serializable {
+    @Column(name = "item_id")
+    private Long itemId;
+    /**
+     * Первый день месяца.
+     */
+    @Column(name = "stat_month")
+    private LocalDate month;
+}
@@ -0,0 +1,94 @@
+package ru.practicum.shareit.booking.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Периодический интервал: вхождение k занимает [start + k * period, end + k * period),
+ * вхождения начинаются не позже until. Вхождения не разворачиваются в память, а вычисляются по номеру.
+ */
+@Getter
+public final class Recurrence {
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final Duration period;
+    private final LocalDateTime until;
+    private final long periodNanos;
+    private final long lastIndex;
+
+    public Recurrence(LocalDateTime start, LocalDateTime end, Duration period, LocalDateTime until) {
+        this.start = start;
+        this.end = end;
+        this.period = period;
+        this.until = until;
+        this.periodNanos = period.toNanos();
+        this.lastIndex = until.isBefore(start) ? -1 : nanosBetween(start, until) / periodNanos;
+    }
+
+    public long size() {
+        return lastIndex + 1;
+    }
+
+    public LocalDateTime startOf(long index) {
+        return start.plusNanos(periodNanos * index);
+    }
+
+    public LocalDateTime endOf(long index) {
+        return end.plusNanos(periodNanos * index);
+    }
+
+    public LocalDateTime lastEnd() {
+        return endOf(lastIndex);
+    }
+
+    /**
+     * Пересекается ли хоть одно вхождение с [from, to). Проверяется только последнее вхождение,
+     * начавшееся до to: у него самый поздний конец среди подходящих.
+     */
+    public boolean overlaps(LocalDateTime from, LocalDateTime to) {
+        if (lastIndex < 0 || !start.isBefore(to)) {
+            return false;
+        }
+        long index = Math.min(lastIndex, (nanosBetween(start, to) - 1) / periodNanos);
+        return endOf(index).isAfter(from);
+    }
+
+    public boolean overlaps(Recurrence other) {
+        Recurrence shorter = size() <= other.size() ? this : other;
+        Recurrence longer = shorter == this ? other : this;
+        for (Occurrence occurrence : shorter.between(longer.getStart(), longer.lastEnd())) {
+            if (longer.overlaps(occurrence.getStart(), occurrence.getEnd())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Вхождения, пересекающиеся с окном [from, to), в порядке начала.
+     */
+    public List<Occurrence> between(LocalDateTime from, LocalDateTime to) {
+        List<Occurrence> occurrences = new ArrayList<>();
+        long index = end.isAfter(from) ? 0 : nanosBetween(end, from) / periodNanos + 1;
+        for (; index <= lastIndex && startOf(index).isBefore(to); index++) {
+            occurrences.add(new Occurrence(startOf(index), endOf(index)));
+        }
+        return occurrences;
+    }
+
+    private static long nanosBetween(LocalDateTime from, LocalDateTime to) {
+        return Duration.between(from, to).toNanos();
+    }
+
+    @Getter
+    @AllArgsConstructor
+    public static final class Occurrence {
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+    }
+}
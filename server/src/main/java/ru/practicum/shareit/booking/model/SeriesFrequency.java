@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.model;
+
+import java.time.Duration;
+
+public enum SeriesFrequency {
+    DAILY(1),
+    WEEKLY(7);
+
+    private final int days;
+
+    SeriesFrequency(int days) {
+        this.days = days;
+    }
+
+    public Duration period(int interval) {
+        return Duration.ofDays((long) days * interval);
+    }
+}
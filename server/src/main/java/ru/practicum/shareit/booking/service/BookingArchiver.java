@@ -0,0 +1,91 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSlot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Переносит бронирования, закончившиеся дольше retention назад, из bookings в bookings_archive.
+ * Каждая пачка копируется и удаляется в одной транзакции, так что строка всегда видна ровно в одной таблице.
+ */
+@Component
+@Slf4j
+public class BookingArchiver {
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final ItemLockStripes itemLockStripes;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration retention;
+    private final int batchSize;
+    private final Counter archivedCounter;
+
+    @Autowired
+    public BookingArchiver(BookingRepository bookingRepository,
+                           BookingArchiveRepository bookingArchiveRepository,
+                           ItemLockStripes itemLockStripes,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.booking.archive.retention:30d}") Duration retention,
+                           @Value("${shareit.booking.archive.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.itemLockStripes = itemLockStripes;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.archivedCounter = Counter.builder("shareit.bookings.archived")
+                .description("Бронирования, перенесённые в архив")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.archive.interval-ms:3600000}")
+    public void archive() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime cutoff = now.minus(retention);
+        int total = 0;
+        Integer moved;
+        do {
+            moved = transactionTemplate.execute(status -> moveBatch(cutoff, now));
+            if (moved == null) {
+                moved = 0;
+            }
+            total += moved;
+        } while (moved == batchSize);
+        if (total > 0) {
+            archivedCounter.increment(total);
+            log.info("В архив перенесено {} бронирований, закончившихся до {}", total, cutoff);
+        }
+    }
+
+    /**
+     * Вещи пачки блокируются, чтобы подтверждение не изменило строку, которую в этот момент переносят.
+     */
+    private int moveBatch(LocalDateTime cutoff, LocalDateTime now) {
+        List<BookingSlot> finished = bookingRepository.findSlotsByEndBefore(cutoff, PageRequest.of(0, batchSize));
+        if (finished.isEmpty()) {
+            return 0;
+        }
+        itemLockStripes.lockAllUntilCompletion(finished.stream()
+                .map(BookingSlot::getItemId)
+                .collect(Collectors.toList()));
+        List<Long> ids = finished.stream().map(BookingSlot::getId).collect(Collectors.toList());
+        bookingArchiveRepository.copyFromBookings(ids, now);
+        bookingRepository.deleteByIdIn(ids);
+        return finished.size();
+    }
+}
@@ -0,0 +1,215 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.dao.BookingSlot;
+import ru.practicum.shareit.booking.model.BookingSeries;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.Recurrence;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Занятые интервалы [start, end) по каждой вещи, отсортированные по началу.
+ * Учитываются только бронирования в статусах WAITING и APPROVED, интервалы одной вещи могут пересекаться.
+ * Рядом хранятся действующие серии вещей и номер последнего изменения по каждой вещи.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Slf4j
+public class BookingIntervalIndex {
+    static final List<BookingStatus> BLOCKING_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final Map<Long, Slots> slotsByItem = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Long, Recurrence>> seriesByItem = new ConcurrentHashMap<>();
+    private final Map<Long, Long> changedAt = new ConcurrentHashMap<>();
+    private final AtomicLong changes = new AtomicLong();
+    private volatile long rebuiltAt;
+
+    @PostConstruct
+    public void rebuild() {
+        slotsByItem.clear();
+        seriesByItem.clear();
+        changedAt.clear();
+        rebuiltAt = changes.incrementAndGet();
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingSlot> slots = bookingRepository.findSlotsByStatusInAndEndAfter(BLOCKING_STATUSES, now);
+        for (BookingSlot slot : slots) {
+            add(slot.getItemId(), slot.getId(), slot.getStartDate(), slot.getEndDate());
+        }
+        List<BookingSeries> series = bookingSeriesRepository.findActive(BLOCKING_STATUSES, now);
+        for (BookingSeries one : series) {
+            addSeries(one.getItem().getId(), one.getId(), one.toRecurrence());
+        }
+        log.info("Индекс бронирований построен: {} интервалов, {} серий", slots.size(), series.size());
+    }
+
+    /**
+     * Растёт при каждом изменении интервалов или серий вещи, в том числе при перестроении индекса.
+     */
+    public long version(long itemId) {
+        return Math.max(changedAt.getOrDefault(itemId, 0L), rebuiltAt);
+    }
+
+    /**
+     * Занятые промежутки вещи, пересекающиеся с [from, to): бронирования и вхождения серий, по возрастанию начала.
+     */
+    public List<Recurrence.Occurrence> busyBetween(long itemId, LocalDateTime from, LocalDateTime to) {
+        List<Recurrence.Occurrence> busy = new ArrayList<>();
+        Slots slots = slotsByItem.get(itemId);
+        if (slots != null) {
+            synchronized (slots) {
+                slots.overlapping(from, to).forEach((start, ends) -> ends.values().stream()
+                        .filter(end -> end.isAfter(from))
+                        .forEach(end -> busy.add(new Recurrence.Occurrence(start, end))));
+            }
+        }
+        seriesByItem.getOrDefault(itemId, Map.of()).values()
+                .forEach(recurrence -> busy.addAll(recurrence.between(from, to)));
+        busy.sort(Comparator.comparing(Recurrence.Occurrence::getStart));
+        return busy;
+    }
+
+    public void addSeries(long itemId, long seriesId, Recurrence recurrence) {
+        seriesByItem.computeIfAbsent(itemId, id -> new ConcurrentHashMap<>()).put(seriesId, recurrence);
+        touch(itemId);
+    }
+
+    public void removeSeries(long itemId, long seriesId) {
+        Map<Long, Recurrence> series = seriesByItem.get(itemId);
+        if (series != null && series.remove(seriesId) != null) {
+            touch(itemId);
+        }
+    }
+
+    public boolean isFree(long itemId, LocalDateTime start, LocalDateTime end) {
+        Slots slots = slotsByItem.get(itemId);
+        if (slots == null) {
+            return true;
+        }
+        synchronized (slots) {
+            return slots.overlapping(start, end).values().stream()
+                    .flatMap(ends -> ends.values().stream())
+                    .noneMatch(slotEnd -> slotEnd.isAfter(start));
+        }
+    }
+
+    /**
+     * Свободна ли вещь на все вхождения серии. Интервалы вещи в пределах серии просматриваются один раз,
+     * каждое пересечение проверяется за O(1).
+     */
+    public boolean isFree(long itemId, Recurrence recurrence) {
+        Slots slots = slotsByItem.get(itemId);
+        if (slots == null || recurrence.size() == 0) {
+            return true;
+        }
+        synchronized (slots) {
+            for (Map.Entry<LocalDateTime, Map<Long, LocalDateTime>> entry
+                    : slots.overlapping(recurrence.getStart(), recurrence.lastEnd()).entrySet()) {
+                for (LocalDateTime slotEnd : entry.getValue().values()) {
+                    if (recurrence.overlaps(entry.getKey(), slotEnd)) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+    }
+
+    public void add(long itemId, long bookingId, LocalDateTime start, LocalDateTime end) {
+        Slots slots = slotsByItem.computeIfAbsent(itemId, id -> new Slots());
+        synchronized (slots) {
+            slots.add(bookingId, start, end);
+            slots.removeFinished(LocalDateTime.now());
+        }
+        touch(itemId);
+    }
+
+    public void remove(long itemId, long bookingId, LocalDateTime start) {
+        Slots slots = slotsByItem.get(itemId);
+        if (slots == null) {
+            return;
+        }
+        synchronized (slots) {
+            if (slots.remove(bookingId, start)) {
+                touch(itemId);
+            }
+        }
+    }
+
+    private void touch(long itemId) {
+        changedAt.put(itemId, changes.incrementAndGet());
+    }
+
+    /**
+     * Интервалы одной вещи по началу, с одинаковым началом может быть несколько бронирований.
+     * Интервалы могут пересекаться: в старых данных пересечения не запрещались. Пересекающиеся с [from, to)
+     * интервалы начинаются не раньше from минус самый длинный интервал вещи, поэтому просмотр ограничен этим окном.
+     */
+    private static final class Slots {
+        private final NavigableMap<LocalDateTime, Map<Long, LocalDateTime>> byStart = new TreeMap<>();
+        private Duration longest = Duration.ZERO;
+
+        /**
+         * Кандидаты на пересечение с [from, to): конец каждого ещё нужно сравнить с from.
+         */
+        private NavigableMap<LocalDateTime, Map<Long, LocalDateTime>> overlapping(LocalDateTime from, LocalDateTime to) {
+            if (!from.isBefore(to)) {
+                return Collections.emptyNavigableMap();
+            }
+            return byStart.subMap(from.minus(longest), false, to, false);
+        }
+
+        private void add(long bookingId, LocalDateTime start, LocalDateTime end) {
+            byStart.computeIfAbsent(start, key -> new HashMap<>()).put(bookingId, end);
+            Duration length = Duration.between(start, end);
+            if (length.compareTo(longest) > 0) {
+                longest = length;
+            }
+        }
+
+        private boolean remove(long bookingId, LocalDateTime start) {
+            Map<Long, LocalDateTime> ends = byStart.get(start);
+            if (ends == null || ends.remove(bookingId) == null) {
+                return false;
+            }
+            if (ends.isEmpty()) {
+                byStart.remove(start);
+            }
+            return true;
+        }
+
+        /**
+         * Закончившиеся интервалы начались раньше now, поэтому просматриваются только они.
+         */
+        private void removeFinished(LocalDateTime now) {
+            Iterator<Map<Long, LocalDateTime>> started = byStart.headMap(now, false).values().iterator();
+            while (started.hasNext()) {
+                Map<Long, LocalDateTime> ends = started.next();
+                ends.values().removeIf(end -> !end.isAfter(now));
+                if (ends.isEmpty()) {
+                    started.remove();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSlot;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
+
+import javax.annotation.PostConstruct;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Переводит бронирования FUTURE -> CURRENT -> PAST в моменты их начала и окончания.
+ * Сработавшие переходы сохраняются пакетными update раз в тик.
+ */
+@Component
+@Slf4j
+public class BookingLifecycleScheduler {
+    private final BookingRepository bookingRepository;
+    private final HashedTimingWheel<Transition> wheel;
+    private final int batchSize;
+    private final Clock clock;
+
+    @Autowired
+    public BookingLifecycleScheduler(BookingRepository bookingRepository,
+                                     @Value("${shareit.booking.lifecycle.tick-ms:1000}") long tickMillis,
+                                     @Value("${shareit.booking.lifecycle.wheel-size:3600}") int wheelSize,
+                                     @Value("${shareit.booking.lifecycle.batch-size:500}") int batchSize) {
+        this(bookingRepository, tickMillis, wheelSize, batchSize, Clock.systemDefaultZone());
+    }
+
+    BookingLifecycleScheduler(BookingRepository bookingRepository, long tickMillis, int wheelSize, int batchSize,
+                              Clock clock) {
+        this.bookingRepository = bookingRepository;
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, clock.millis());
+        this.batchSize = batchSize;
+        this.clock = clock;
+    }
+
+    /**
+     * Догоняет переходы, пропущенные пока сервер не работал, и ставит в колесо все незавершённые бронирования.
+     * Пропущенные переходы сохраняются пачками по batchSize, как и на тике.
+     */
+    @PostConstruct
+    public void catchUp() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        int ended = catchUpInBatches(page -> bookingRepository.findIdsOfEnded(now, page), BookingLifecycle.PAST);
+        int started = catchUpInBatches(page -> bookingRepository.findIdsOfStarted(now, page), BookingLifecycle.CURRENT);
+        List<BookingSlot> slots = bookingRepository.findSlotsByEndAfter(now);
+        for (BookingSlot slot : slots) {
+            schedule(slot.getId(), slot.getStartDate(), slot.getEndDate(), slot.getStartDate().isAfter(now));
+        }
+        log.info("Состояния бронирований обновлены при запуске: завершено {}, начато {}, в планировщике {}",
+                ended, started, slots.size());
+    }
+
+    public void schedule(Booking booking) {
+        if (booking.getLifecycle() == BookingLifecycle.PAST) {
+            return;
+        }
+        schedule(booking.getId(), booking.getStart(), booking.getEnd(),
+                booking.getLifecycle() == BookingLifecycle.FUTURE);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.lifecycle.tick-ms:1000}")
+    public void tick() {
+        List<Transition> fired = wheel.advance(clock.millis());
+        if (fired.isEmpty()) {
+            return;
+        }
+        apply(fired, BookingLifecycle.CURRENT);
+        apply(fired, BookingLifecycle.PAST);
+    }
+
+    int pending() {
+        return wheel.size();
+    }
+
+    /**
+     * Переведённые бронирования выпадают из выборки, поэтому каждый раз читается первая страница.
+     */
+    private int catchUpInBatches(Function<Pageable, List<Long>> finder, BookingLifecycle lifecycle) {
+        int total = 0;
+        List<Long> ids;
+        int updated;
+        do {
+            ids = finder.apply(PageRequest.of(0, batchSize));
+            updated = ids.isEmpty() ? 0 : bookingRepository.updateLifecycle(ids, lifecycle);
+            total += updated;
+        } while (ids.size() == batchSize && updated > 0);
+        return total;
+    }
+
+    private void schedule(long bookingId, LocalDateTime start, LocalDateTime end, boolean notStarted) {
+        if (notStarted) {
+            wheel.schedule(toMillis(start), new Transition(bookingId, BookingLifecycle.CURRENT));
+        }
+        wheel.schedule(toMillis(end), new Transition(bookingId, BookingLifecycle.PAST));
+    }
+
+    private void apply(List<Transition> fired, BookingLifecycle lifecycle) {
+        List<Long> ids = fired.stream()
+                .filter(transition -> transition.lifecycle == lifecycle)
+                .map(transition -> transition.bookingId)
+                .collect(Collectors.toList());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            try {
+                bookingRepository.updateLifecycle(batch, lifecycle);
+            } catch (RuntimeException e) {
+                log.warn("Не удалось перевести {} бронирований в {}, повтор на следующем тике", batch.size(), lifecycle, e);
+                long now = clock.millis();
+                batch.forEach(id -> wheel.schedule(now, new Transition(id, lifecycle)));
+            }
+        }
+    }
+
+    private long toMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(clock.getZone()).toInstant().toEpochMilli();
+    }
+
+    private static final class Transition {
+        private final long bookingId;
+        private final BookingLifecycle lifecycle;
+
+        private Transition(long bookingId, BookingLifecycle lifecycle) {
+            this.bookingId = bookingId;
+            this.lifecycle = lifecycle;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface BookingSeriesService {
+    BookingSeriesDto createSeries(BookingSeriesRequestDto request, Long userId);
+
+    BookingSeriesDto approveSeries(Long seriesId, Long userId, Boolean approved);
+
+    List<BookingOccurrenceDto> getOccurrencesByUserId(Long userId, LocalDateTime from, LocalDateTime to);
+
+    List<BookingOccurrenceDto> getOccurrencesForUserItems(Long userId, LocalDateTime from, LocalDateTime to);
+}
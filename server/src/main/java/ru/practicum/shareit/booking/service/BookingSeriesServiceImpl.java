@@ -0,0 +1,204 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesMapper;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingSeries;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.Recurrence;
+import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.exceptions.IncorrectParamException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxPublisher;
+import ru.practicum.shareit.retry.OptimisticRetry;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Серия хранится одной строкой. Вхождения вычисляются по запрошенному окну и в базу не пишутся.
+ */
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class BookingSeriesServiceImpl implements BookingSeriesService {
+    static final int MAX_OCCURRENCES = 1000;
+    static final Duration MAX_WINDOW = Duration.ofDays(366);
+
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final BookingSeriesMapper bookingSeriesMapper;
+    private final UserRepository userRepository;
+    private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLockStripes itemLockStripes;
+    private final OutboxPublisher outboxPublisher;
+    private final BookingStatsRecorder bookingStatsRecorder;
+    private final OptimisticRetry optimisticRetry;
+
+    @Transactional
+    public BookingSeriesDto createSeries(BookingSeriesRequestDto request, Long userId) {
+        Long itemId = request.getItemId();
+        User user = findAndCheckUser(userId);
+        Item item = itemRepository.findById(itemId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Предмета с id %d не найдено", itemId)));
+        if (item.getAvailable().equals(false)) {
+            throw new IncorrectParamException("Предмет недоступен");
+        }
+        Recurrence recurrence = checkRecurrence(request);
+        if (userId.equals(item.getOwner().getId())) {
+            throw new EntityNotFoundException(String.format("Предмет с id %d не доступен для бронирования пользователю %d", itemId, userId));
+        }
+        itemLockStripes.lockUntilCompletion(itemId);
+        if (!bookingIntervalIndex.isFree(itemId, recurrence)) {
+            throw new IncorrectParamException(String.format("Предмет с id %d уже забронирован на даты серии", itemId));
+        }
+        boolean seriesConflict = bookingSeriesRepository.findBlocking(List.of(itemId),
+                        BookingIntervalIndex.BLOCKING_STATUSES, LocalDateTime.now()).stream()
+                .anyMatch(series -> series.toRecurrence().overlaps(recurrence));
+        if (seriesConflict) {
+            throw new IncorrectParamException(String.format("Предмет с id %d уже забронирован другой серией", itemId));
+        }
+
+        BookingSeries series = BookingSeries.builder()
+                .item(item)
+                .booker(user)
+                .start(request.getStart())
+                .end(request.getEnd())
+                .frequency(request.getFrequency())
+                .interval(request.getInterval())
+                .until(request.getUntil())
+                .lastEnd(recurrence.lastEnd())
+                .status(BookingStatus.WAITING)
+                .build();
+        BookingSeries saved = bookingSeriesRepository.save(series);
+        outboxPublisher.publish(List.of(BookingEvent.ofSeries(saved.getId(), itemId, BookingEventType.CREATED,
+                LocalDateTime.now())));
+        bookingStatsRecorder.record(BookingStatsRecorder.seriesChanges(itemId, recurrence, null, BookingStatus.WAITING));
+        afterCommit(() -> bookingIntervalIndex.addSeries(itemId, saved.getId(), recurrence));
+        log.info("Создана серия {} из {} бронирований вещи {}", saved.getId(), recurrence.size(), itemId);
+        return bookingSeriesMapper.seriesToDto(saved);
+    }
+
+    /**
+     * Транзакцию открывает OptimisticRetry, чтобы при конфликте версий повторить решение на свежих данных.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public BookingSeriesDto approveSeries(Long seriesId, Long userId, Boolean approved) {
+        return optimisticRetry.execute("series.approve", () -> approve(seriesId, userId, approved));
+    }
+
+    private BookingSeriesDto approve(Long seriesId, Long userId, Boolean approved) {
+        Long itemId = bookingSeriesRepository.findItemIdById(seriesId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Серии с id %d не найдено", seriesId)));
+        itemLockStripes.lockUntilCompletion(itemId);
+        BookingSeries series = bookingSeriesRepository.findById(seriesId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Серии с id %d не найдено", seriesId)));
+        if (!userId.equals(series.getOwnerId())) {
+            throw new EntityNotFoundException(String.format("Пользователь %d не владелец вещи %d", userId, itemId));
+        }
+        if (series.getStatus() == BookingStatus.EXPIRED) {
+            throw new IncorrectParamException(String.format("Серия %d просрочена", seriesId));
+        }
+        if (series.getStatus() != BookingStatus.WAITING) {
+            throw new IncorrectParamException(String.format("Серия %d уже рассмотрена", seriesId));
+        }
+        BookingStatus previous = series.getStatus();
+        series.setStatus(approved ? BookingStatus.APPROVED : BookingStatus.REJECTED);
+        if (!approved) {
+            afterCommit(() -> bookingIntervalIndex.removeSeries(itemId, seriesId));
+        }
+        outboxPublisher.publish(List.of(BookingEvent.ofSeries(seriesId, itemId,
+                approved ? BookingEventType.APPROVED : BookingEventType.REJECTED, LocalDateTime.now())));
+        bookingStatsRecorder.record(BookingStatsRecorder.seriesChanges(itemId, series.toRecurrence(),
+                previous, series.getStatus()));
+        return bookingSeriesMapper.seriesToDto(bookingSeriesRepository.save(series));
+    }
+
+    public List<BookingOccurrenceDto> getOccurrencesByUserId(Long userId, LocalDateTime from, LocalDateTime to) {
+        checkWindow(from, to);
+        findAndCheckUser(userId);
+        return expand(bookingSeriesRepository.findByBookerInWindow(userId, from, to), from, to);
+    }
+
+    public List<BookingOccurrenceDto> getOccurrencesForUserItems(Long userId, LocalDateTime from, LocalDateTime to) {
+        checkWindow(from, to);
+        findAndCheckUser(userId);
+        return expand(bookingSeriesRepository.findByOwnerInWindow(userId, from, to), from, to);
+    }
+
+    private List<BookingOccurrenceDto> expand(List<BookingSeries> seriesList, LocalDateTime from, LocalDateTime to) {
+        List<BookingOccurrenceDto> occurrences = new ArrayList<>();
+        for (BookingSeries series : seriesList) {
+            for (Recurrence.Occurrence occurrence : series.toRecurrence().between(from, to)) {
+                occurrences.add(new BookingOccurrenceDto(series.getId(), series.getItem().getId(),
+                        series.getBooker().getId(), occurrence.getStart(), occurrence.getEnd(), series.getStatus()));
+            }
+        }
+        occurrences.sort(Comparator.comparing(BookingOccurrenceDto::getStart));
+        return occurrences;
+    }
+
+    private Recurrence checkRecurrence(BookingSeriesRequestDto request) {
+        LocalDateTime start = request.getStart();
+        LocalDateTime end = request.getEnd();
+        if (start == null || end == null || request.getUntil() == null || request.getFrequency() == null
+                || !start.isBefore(end) || start.isBefore(LocalDateTime.now()) || request.getUntil().isBefore(start)) {
+            throw new IncorrectParamException("Проверьте корректность дат");
+        }
+        if (request.getInterval() == null || request.getInterval() < 1) {
+            throw new IncorrectParamException("Интервал повторения должен быть положительным");
+        }
+        Duration period = request.getFrequency().period(request.getInterval());
+        if (Duration.between(start, end).compareTo(period) > 0) {
+            throw new IncorrectParamException("Вхождения серии не должны пересекаться");
+        }
+        Recurrence recurrence = new Recurrence(start, end, period, request.getUntil());
+        if (recurrence.size() > MAX_OCCURRENCES) {
+            throw new IncorrectParamException(String.format("В серии не может быть больше %d бронирований", MAX_OCCURRENCES));
+        }
+        return recurrence;
+    }
+
+    private void checkWindow(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to) || Duration.between(from, to).compareTo(MAX_WINDOW) > 0) {
+            throw new IncorrectParamException(String.format("Окно должно быть непустым и не длиннее %d дней", MAX_WINDOW.toDays()));
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private User findAndCheckUser(Long userId) {
+        return userRepository.findById(userId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Пользователя с id %d не найдено", userId)));
+    }
+}
@@ -1,18 +1,30 @@
 package ru.practicum.shareit.booking.service;
 
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.MultiBookingRequestDto;
 
 import java.util.List;
 
 public interface BookingService {
     BookingDto createBooking(BookingRequestDto bookingRequestDto, Long userId);
 
+    List<BookingDto> createBookings(MultiBookingRequestDto request, Long userId);
+
     BookingDto approveBooking(Long bookingId, Long userId, Boolean approved);
 
+    List<BookingApprovalResultDto> approveBookings(List<BookingApprovalDto> approvals, Long userId);
+
     BookingDto getBookingById(Long bookingId, Long userId);
 
     List<BookingDto> getAllBookingsByUserId(Long userId, String state, int from, int size);
 
     List<BookingDto> getAllBookingsForUserItems(Long userId, String state, int from, int size);
+
+    BookingPage getBookingsByUserIdAfter(Long userId, String state, String cursor, int size);
+
+    BookingPage getBookingsForUserItemsAfter(Long userId, String state, String cursor, int size);
 }
@@ -3,15 +3,28 @@ package ru.practicum.shareit.booking.service;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dao.BookingApprovalView;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.MultiBookingRequestDto;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
 import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
@@ -19,12 +32,23 @@ import ru.practicum.shareit.exceptions.IncorrectParamException;
 import ru.practicum.shareit.exceptions.ValueIsNotEnumException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemDetailCache;
+import ru.practicum.shareit.outbox.OutboxPublisher;
+import ru.practicum.shareit.retry.OptimisticRetry;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -36,6 +60,15 @@ public class BookingServiceImpl implements BookingService {
     private final BookingMapper bookingMapper;
     private final UserRepository userRepository;
     private final ItemRepository itemRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLockStripes itemLockStripes;
+    private final BookingLifecycleScheduler bookingLifecycleScheduler;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final OutboxPublisher outboxPublisher;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final OptimisticRetry optimisticRetry;
+    private final BookingStatsRecorder bookingStatsRecorder;
+    private final ItemDetailCache itemDetailCache;
 
     @Transactional
     public BookingDto createBooking(BookingRequestDto bookingRequestDto, Long userId) {
@@ -47,14 +80,15 @@ public class BookingServiceImpl implements BookingService {
         if (item.getAvailable().equals(false)) {
             throw new IncorrectParamException("Предмет недоступен");
         }
-        if (bookingRequestDto.getStart().isAfter(bookingRequestDto.getEnd()) ||
-                bookingRequestDto.getStart().equals(bookingRequestDto.getEnd()) ||
-                bookingRequestDto.getStart().isBefore(LocalDateTime.now())) {
-            throw new IncorrectParamException("Проверьте корректность дат");
-        }
+        checkDates(bookingRequestDto.getStart(), bookingRequestDto.getEnd());
         if (item.getOwner().getId() == userId) {
             throw new EntityNotFoundException(String.format("Предмет с id %d не доступен для бронирования пользователю %d", itemId, userId));
         }
+        itemLockStripes.lockUntilCompletion(itemId);
+        if (!bookingIntervalIndex.isFree(itemId, bookingRequestDto.getStart(), bookingRequestDto.getEnd())
+                || !findSeriesConflicts(List.of(itemId), bookingRequestDto.getStart(), bookingRequestDto.getEnd()).isEmpty()) {
+            throw new IncorrectParamException(String.format("Предмет с id %d уже забронирован на эти даты", itemId));
+        }
         Booking booking = Booking.builder()
                 .start(bookingRequestDto.getStart())
                 .end(bookingRequestDto.getEnd())
@@ -63,11 +97,94 @@ public class BookingServiceImpl implements BookingService {
                 .status(BookingStatus.WAITING)
                 .build();
 
-        return bookingMapper.bookingToDto(bookingRepository.save(booking));
+        Booking saved = bookingRepository.save(booking);
+        outboxPublisher.publish(BookingEventType.CREATED, saved.getId(), itemId);
+        bookingStatsRecorder.record(new BookingStatsRecorder.Change(itemId, saved.getStart(), saved.getEnd(),
+                null, BookingStatus.WAITING));
+        afterCommit(() -> {
+            bookingIntervalIndex.add(itemId, saved.getId(), saved.getStart(), saved.getEnd());
+            bookingLifecycleScheduler.schedule(saved);
+        });
+        return bookingMapper.bookingToDto(saved);
     }
 
+    /**
+     * Бронирует все вещи на один период: либо создаются все бронирования, либо ни одного.
+     */
     @Transactional
+    public List<BookingDto> createBookings(MultiBookingRequestDto request, Long userId) {
+        if (request.getItemIds() == null || request.getItemIds().isEmpty()) {
+            throw new IncorrectParamException("Не указаны предметы для бронирования");
+        }
+        Set<Long> itemIds = new LinkedHashSet<>(request.getItemIds());
+        User user = findAndCheckUser(userId);
+        Map<Long, Item> items = itemRepository.findAllWithOwnerByIdIn(itemIds).stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        List<Long> missing = itemIds.stream()
+                .filter(id -> !items.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            throw new EntityNotFoundException(String.format("Предметов с id %s не найдено", missing));
+        }
+        List<Long> unavailable = itemIds.stream()
+                .filter(id -> !Boolean.TRUE.equals(items.get(id).getAvailable()))
+                .collect(Collectors.toList());
+        if (!unavailable.isEmpty()) {
+            throw new IncorrectParamException(String.format("Предметы %s недоступны", unavailable));
+        }
+        checkDates(request.getStart(), request.getEnd());
+        List<Long> own = itemIds.stream()
+                .filter(id -> userId.equals(items.get(id).getOwner().getId()))
+                .collect(Collectors.toList());
+        if (!own.isEmpty()) {
+            throw new EntityNotFoundException(String.format("Предметы %s не доступны для бронирования пользователю %d", own, userId));
+        }
+        itemLockStripes.lockAllUntilCompletion(itemIds);
+        Set<Long> taken = itemIds.stream()
+                .filter(id -> !bookingIntervalIndex.isFree(id, request.getStart(), request.getEnd()))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        taken.addAll(findSeriesConflicts(itemIds, request.getStart(), request.getEnd()));
+        if (!taken.isEmpty()) {
+            throw new IncorrectParamException(String.format("Предметы %s уже забронированы на эти даты", taken));
+        }
+
+        List<Booking> bookings = itemIds.stream()
+                .map(id -> Booking.builder()
+                        .start(request.getStart())
+                        .end(request.getEnd())
+                        .booker(user)
+                        .item(items.get(id))
+                        .status(BookingStatus.WAITING)
+                        .build())
+                .collect(Collectors.toList());
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        LocalDateTime now = LocalDateTime.now();
+        outboxPublisher.publish(saved.stream()
+                .map(booking -> new BookingEvent(booking.getId(), booking.getItem().getId(), BookingEventType.CREATED, now))
+                .collect(Collectors.toList()));
+        bookingStatsRecorder.record(saved.stream()
+                .map(booking -> new BookingStatsRecorder.Change(booking.getItem().getId(), booking.getStart(),
+                        booking.getEnd(), null, BookingStatus.WAITING))
+                .collect(Collectors.toList()));
+        afterCommit(() -> saved.forEach(booking -> {
+            bookingIntervalIndex.add(booking.getItem().getId(), booking.getId(), booking.getStart(), booking.getEnd());
+            bookingLifecycleScheduler.schedule(booking);
+        }));
+        return convertToDtoList(saved);
+    }
+
+    /**
+     * Транзакцию открывает OptimisticRetry, чтобы при конфликте версий повторить решение на свежих данных.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
     public BookingDto approveBooking(Long bookingId, Long userId, Boolean approved) {
+        return optimisticRetry.execute("booking.approve", () -> approve(bookingId, userId, approved));
+    }
+
+    private BookingDto approve(Long bookingId, Long userId, Boolean approved) {
+        Long itemId = bookingRepository.findItemIdById(bookingId)
+                .orElseThrow(() -> new EntityNotFoundException(String.format("Запроса с id %d не найдено", bookingId)));
+        itemLockStripes.lockUntilCompletion(itemId);
         Booking booking = bookingRepository.findById(bookingId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Запроса с id %d не найдено", bookingId)));
         if (!userId.equals(booking.getItem().getOwner().getId())) {
@@ -76,19 +193,143 @@ public class BookingServiceImpl implements BookingService {
         if (booking.getStatus().equals(BookingStatus.APPROVED)) {
             throw new IncorrectParamException(String.format("Запрос %d уже подтвержден", bookingId));
         }
+        if (booking.getStatus().equals(BookingStatus.EXPIRED)) {
+            throw new IncorrectParamException(String.format("Запрос %d просрочен", bookingId));
+        }
+        if (booking.getStatus() != BookingStatus.WAITING) {
+            throw new IncorrectParamException(String.format("Запрос %d уже рассмотрен", bookingId));
+        }
+        BookingStatus previous = booking.getStatus();
         if (approved) {
             booking.setStatus(BookingStatus.APPROVED);
+            afterCommit(() -> itemDetailCache.invalidateOwnerViews(List.of(itemId)));
         } else {
             booking.setStatus(BookingStatus.REJECTED);
+            afterCommit(() -> bookingIntervalIndex.remove(itemId, booking.getId(), booking.getStart()));
         }
-
+        outboxPublisher.publish(approved ? BookingEventType.APPROVED : BookingEventType.REJECTED, bookingId, itemId);
+        bookingStatsRecorder.record(new BookingStatsRecorder.Change(itemId, booking.getStart(), booking.getEnd(),
+                previous, booking.getStatus()));
 
         return bookingMapper.bookingToDto(bookingRepository.save(booking));
     }
 
 
+    @Transactional
+    public List<BookingApprovalResultDto> approveBookings(List<BookingApprovalDto> approvals, Long userId) {
+        Set<Long> ids = approvals.stream()
+                .map(BookingApprovalDto::getBookingId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<Long, BookingApprovalView> views = ids.isEmpty() ? Map.of() : bookingRepository.findApprovalViewsByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(BookingApprovalView::getId, Function.identity()));
+
+        List<BookingApprovalResultDto> results = new ArrayList<>();
+        Map<BookingStatus, List<Long>> idsByStatus = new EnumMap<>(BookingStatus.class);
+        Set<Long> seen = new HashSet<>();
+        for (BookingApprovalDto approval : approvals) {
+            Long bookingId = approval.getBookingId();
+            String error = checkApproval(approval, views.get(bookingId), userId, seen);
+            if (error != null) {
+                results.add(BookingApprovalResultDto.failed(bookingId, error));
+                continue;
+            }
+            BookingStatus status = approval.getApproved() ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+            idsByStatus.computeIfAbsent(status, key -> new ArrayList<>()).add(bookingId);
+            results.add(BookingApprovalResultDto.applied(bookingId, status));
+        }
+        if (idsByStatus.isEmpty()) {
+            return results;
+        }
+
+        itemLockStripes.lockAllUntilCompletion(idsByStatus.values().stream()
+                .flatMap(List::stream)
+                .map(id -> views.get(id).getItemId())
+                .collect(Collectors.toList()));
+        Set<Long> applied = new HashSet<>();
+        idsByStatus.forEach((status, statusIds) -> applied.addAll(updateWaitingStatus(statusIds, status)));
+        for (BookingApprovalResultDto result : results) {
+            if (result.getStatus() != null && !applied.contains(result.getBookingId())) {
+                result.setStatus(null);
+                result.setError(String.format("Запрос %d уже рассмотрен", result.getBookingId()));
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        List<BookingEvent> events = new ArrayList<>();
+        idsByStatus.forEach((status, statusIds) -> statusIds.stream()
+                .filter(applied::contains)
+                .forEach(id -> events.add(new BookingEvent(id, views.get(id).getItemId(),
+                        status == BookingStatus.APPROVED ? BookingEventType.APPROVED : BookingEventType.REJECTED, now))));
+        outboxPublisher.publish(events);
+        List<BookingStatsRecorder.Change> changes = new ArrayList<>();
+        idsByStatus.forEach((status, statusIds) -> statusIds.stream()
+                .filter(applied::contains)
+                .map(views::get)
+                .forEach(view -> changes.add(new BookingStatsRecorder.Change(view.getItemId(), view.getStartDate(),
+                        view.getEndDate(), BookingStatus.WAITING, status))));
+        bookingStatsRecorder.record(changes);
+
+        List<BookingApprovalView> rejected = idsByStatus.getOrDefault(BookingStatus.REJECTED, List.of()).stream()
+                .filter(applied::contains)
+                .map(views::get)
+                .collect(Collectors.toList());
+        Set<Long> approvedItemIds = idsByStatus.getOrDefault(BookingStatus.APPROVED, List.of()).stream()
+                .filter(applied::contains)
+                .map(id -> views.get(id).getItemId())
+                .collect(Collectors.toSet());
+        afterCommit(() -> {
+            rejected.forEach(view -> bookingIntervalIndex.remove(view.getItemId(), view.getId(), view.getStartDate()));
+            itemDetailCache.invalidateOwnerViews(approvedItemIds);
+        });
+        return results;
+    }
+
+    private String checkApproval(BookingApprovalDto approval, BookingApprovalView view, Long userId, Set<Long> seen) {
+        Long bookingId = approval.getBookingId();
+        if (bookingId == null) {
+            return "Не указан id запроса";
+        }
+        if (!seen.add(bookingId)) {
+            return String.format("Запрос %d передан повторно", bookingId);
+        }
+        if (approval.getApproved() == null) {
+            return String.format("Не указано решение по запросу %d", bookingId);
+        }
+        if (view == null) {
+            return String.format("Запроса с id %d не найдено", bookingId);
+        }
+        if (!userId.equals(view.getOwnerId())) {
+            return String.format("Пользователь %d не владелец вещи %d", userId, view.getItemId());
+        }
+        if (view.getStatus() == BookingStatus.APPROVED) {
+            return String.format("Запрос %d уже подтвержден", bookingId);
+        }
+        if (view.getStatus() == BookingStatus.EXPIRED) {
+            return String.format("Запрос %d просрочен", bookingId);
+        }
+        if (view.getStatus() != BookingStatus.WAITING) {
+            return String.format("Запрос %d уже рассмотрен", bookingId);
+        }
+        return null;
+    }
+
+    /**
+     * Статус мог смениться между чтением и блокировкой вещей, поэтому update меняет только WAITING.
+     * Если обновилось меньше строк, применённые id перечитываются.
+     */
+    private List<Long> updateWaitingStatus(List<Long> ids, BookingStatus status) {
+        int updated = bookingRepository.updateStatus(ids, BookingStatus.WAITING, status);
+        if (updated == ids.size()) {
+            return ids;
+        }
+        return bookingRepository.findIdsByIdInAndStatus(ids, status);
+    }
+
     public BookingDto getBookingById(Long bookingId, Long userId) {
         Booking booking = bookingRepository.findById(bookingId)
+                .or(() -> bookingArchiveRepository.findById(bookingId).map(ArchivedBooking::toBooking))
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Запроса с id %d не найдено", bookingId)));
         if (booking.getBooker().getId() != userId && booking.getItem().getOwner().getId() != userId) {
             throw new EntityNotFoundException(String.format("Запроса %d для пользователя %d не найдено", bookingId, userId));
@@ -97,63 +338,60 @@ public class BookingServiceImpl implements BookingService {
     }
 
     public List<BookingDto> getAllBookingsByUserId(Long userId, String state, int from, int size) {
-        BookingState bookingState = getStateFromString(state);
-        findAndCheckUser(userId);
-        List<Booking> list = new ArrayList<>();
-        LocalDateTime now = LocalDateTime.now();
-        Pageable pageable = PageRequest.of(from / size, size);
-        switch (bookingState) {
-            case ALL:
-                list = bookingRepository.findByBookerIdOrderByStartDesc(userId, pageable).toList();
-                break;
-            case CURRENT:
-                list = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(userId, now, now, pageable);
-                break;
-            case FUTURE:
-                list = bookingRepository.findByBookerIdAndStartAfterAndEndAfterOrderByStartDesc(userId, now, now, pageable);
-                break;
-            case PAST:
-                list = bookingRepository.findByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(userId, now, now, pageable);
-                break;
-            case WAITING:
-                list = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                list = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, pageable);
-                break;
-        }
-        return convertToDtoList(list);
+        return convertToDtoList(findBookings(BookingRole.BOOKER, userId, state, null, from, size));
     }
 
-
     public List<BookingDto> getAllBookingsForUserItems(Long userId, String state, int from, int size) {
+        return convertToDtoList(findBookings(BookingRole.OWNER, userId, state, null, from, size));
+    }
+
+    public BookingPage getBookingsByUserIdAfter(Long userId, String state, String cursor, int size) {
+        return getPageAfter(BookingRole.BOOKER, userId, state, cursor, size);
+    }
+
+    public BookingPage getBookingsForUserItemsAfter(Long userId, String state, String cursor, int size) {
+        return getPageAfter(BookingRole.OWNER, userId, state, cursor, size);
+    }
+
+    private BookingPage getPageAfter(BookingRole role, Long userId, String state, String cursor, int size) {
+        if (size <= 0) {
+            throw new IncorrectParamException("Размер страницы должен быть положительным");
+        }
+        List<Booking> list = findBookings(role, userId, state, BookingCursor.decode(cursor), 0, size + 1);
+        String nextCursor = null;
+        if (list.size() > size) {
+            list = list.subList(0, size);
+            nextCursor = BookingCursor.of(list.get(size - 1)).encode();
+        }
+        return new BookingPage(convertToDtoList(list), nextCursor);
+    }
 
+    private List<Booking> findBookings(BookingRole role, Long userId, String state, BookingCursor cursor,
+                                       int offset, int limit) {
         BookingState bookingState = getStateFromString(state);
+        List<Booking> list = bookingRepository.findBookings(role, userId, bookingState, cursor, offset, limit);
+        if (list.isEmpty()) {
+            findAndCheckUser(userId);
+        }
+        return list;
+    }
+
+    /**
+     * Вещи, у которых действующая серия пересекается с [start, end). Серии вещей читаются одним запросом.
+     */
+    private List<Long> findSeriesConflicts(Collection<Long> itemIds, LocalDateTime start, LocalDateTime end) {
+        return bookingSeriesRepository.findBlocking(itemIds, BookingIntervalIndex.BLOCKING_STATUSES, LocalDateTime.now())
+                .stream()
+                .filter(series -> series.toRecurrence().overlaps(start, end))
+                .map(series -> series.getItem().getId())
+                .distinct()
+                .collect(Collectors.toList());
+    }
 
-        findAndCheckUser(userId);
-        List<Booking> list = new ArrayList<>();
-        Pageable pageable = PageRequest.of(from / size, size);
-        switch (bookingState) {
-            case ALL:
-                list = bookingRepository.findByItemOwnerIdOrderByStartDesc(userId, pageable);
-                break;
-            case CURRENT:
-                list = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(userId, LocalDateTime.now(), LocalDateTime.now(), pageable);
-                break;
-            case FUTURE:
-                list = bookingRepository.findByItemOwnerIdAndStartAfterAndEndAfterOrderByStartDesc(userId, LocalDateTime.now(), LocalDateTime.now(), pageable);
-                break;
-            case PAST:
-                list = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndBeforeOrderByStartDesc(userId, LocalDateTime.now(), LocalDateTime.now(), pageable);
-                break;
-            case WAITING:
-                list = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.WAITING, pageable);
-                break;
-            case REJECTED:
-                list = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(userId, BookingStatus.REJECTED, pageable);
-                break;
-        }
-        return convertToDtoList(list);
+    private void checkDates(LocalDateTime start, LocalDateTime end) {
+        if (start.isAfter(end) || start.equals(end) || start.isBefore(LocalDateTime.now())) {
+            throw new IncorrectParamException("Проверьте корректность дат");
+        }
     }
 
     private User findAndCheckUser(Long userId) {
@@ -161,6 +399,19 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Пользователя с id %d не найдено", userId)));
     }
 
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
     private List<BookingDto> convertToDtoList(List<Booking> list) {
         return list.stream().map(el -> bookingMapper.bookingToDto(el)).collect(Collectors.toList());
     }
@@ -0,0 +1,102 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.dao.BookingStatsRepository;
+import ru.practicum.shareit.booking.dao.BookingStatsView;
+import ru.practicum.shareit.booking.model.BookingSeries;
+
+import javax.annotation.PostConstruct;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Заполняет пустую booking_stats по уже существующим бронированиям, в том числе архивным, и сериям.
+ * Без этого смены статусов старых бронирований списывали бы счётчики, в которые те не попадали.
+ * Работает до старта планировщиков и приёма запросов, поэтому бронирования не меняются во время прохода.
+ */
+@Component
+@Slf4j
+public class BookingStatsBackfill {
+    private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final BookingStatsRepository bookingStatsRepository;
+    private final BookingStatsRecorder bookingStatsRecorder;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+
+    @Autowired
+    public BookingStatsBackfill(BookingRepository bookingRepository,
+                                BookingArchiveRepository bookingArchiveRepository,
+                                BookingSeriesRepository bookingSeriesRepository,
+                                BookingStatsRepository bookingStatsRepository,
+                                BookingStatsRecorder bookingStatsRecorder,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${shareit.booking.stats.backfill-batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingArchiveRepository = bookingArchiveRepository;
+        this.bookingSeriesRepository = bookingSeriesRepository;
+        this.bookingStatsRepository = bookingStatsRepository;
+        this.bookingStatsRecorder = bookingStatsRecorder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+    }
+
+    @PostConstruct
+    public void backfill() {
+        if (bookingStatsRepository.count() > 0) {
+            return;
+        }
+        int total = backfill(bookingArchiveRepository::findStatsViewsAfter, BookingStatsView::getId, this::changesOf)
+                + backfill(bookingRepository::findStatsViewsAfter, BookingStatsView::getId, this::changesOf)
+                + backfill(bookingSeriesRepository::findAfter, BookingSeries::getId, this::changesOf);
+        if (total > 0) {
+            log.info("Статистика бронирований заполнена по {} существующим бронированиям", total);
+        }
+    }
+
+    /**
+     * Каждое бронирование учитывается как созданное сразу в текущем статусе, пачки идут по возрастанию id.
+     */
+    private <T> int backfill(BiFunction<Long, Pageable, List<T>> finder, Function<T, Long> idOf,
+                             Function<T, List<BookingStatsRecorder.Change>> changesOf) {
+        int total = 0;
+        long afterId = 0;
+        List<T> batch;
+        do {
+            batch = finder.apply(afterId, PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            List<BookingStatsRecorder.Change> changes = batch.stream()
+                    .flatMap(row -> changesOf.apply(row).stream())
+                    .collect(Collectors.toList());
+            transactionTemplate.executeWithoutResult(status -> bookingStatsRecorder.record(changes));
+            afterId = idOf.apply(batch.get(batch.size() - 1));
+            total += batch.size();
+        } while (batch.size() == batchSize);
+        return total;
+    }
+
+    private List<BookingStatsRecorder.Change> changesOf(BookingStatsView view) {
+        return List.of(new BookingStatsRecorder.Change(view.getItemId(), view.getStartDate(), view.getEndDate(),
+                null, view.getStatus()));
+    }
+
+    private List<BookingStatsRecorder.Change> changesOf(BookingSeries series) {
+        return BookingStatsRecorder.seriesChanges(series.getItem().getId(), series.toRecurrence(), null,
+                series.getStatus());
+    }
+}
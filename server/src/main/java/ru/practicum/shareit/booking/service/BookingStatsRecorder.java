@@ -0,0 +1,121 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingStatsRepository;
+import ru.practicum.shareit.booking.model.BookingStats;
+import ru.practicum.shareit.booking.model.BookingStatsId;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.Recurrence;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Применяет смены статусов к счётчикам booking_stats в транзакции, которая меняет статус.
+ * Строки всех затронутых месяцев читаются одним запросом и сохраняются пачкой.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class BookingStatsRecorder {
+    private final BookingStatsRepository bookingStatsRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Change change) {
+        record(List.of(change));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Change> changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        Map<BookingStatsId, Long> minutes = new LinkedHashMap<>();
+        Map<BookingStatsId, BookingStats> rows = new HashMap<>();
+        for (Change change : changes) {
+            long sign = change.getTo() == BookingStatus.APPROVED ? 1 : change.getFrom() == BookingStatus.APPROVED ? -1 : 0;
+            if (sign != 0) {
+                splitByMonth(change).forEach((id, value) -> minutes.merge(id, sign * value, Long::sum));
+            }
+        }
+        Set<BookingStatsId> ids = changes.stream()
+                .map(change -> idOf(change.getItemId(), YearMonth.from(change.getStart())))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+        ids.addAll(minutes.keySet());
+        bookingStatsRepository.findAllById(ids).forEach(row -> rows.put(row.getId(), row));
+
+        Function<BookingStatsId, BookingStats> row = id -> rows.computeIfAbsent(id, BookingStats::new);
+        for (Change change : changes) {
+            BookingStats stats = row.apply(idOf(change.getItemId(), YearMonth.from(change.getStart())));
+            if (change.getFrom() != null) {
+                stats.add(change.getFrom(), -1);
+            }
+            stats.add(change.getTo(), 1);
+        }
+        minutes.forEach((id, value) -> row.apply(id).addBookedMinutes(value));
+        bookingStatsRepository.saveAll(rows.values());
+    }
+
+    /**
+     * Смена статуса серии учитывается как смена статуса каждого её вхождения.
+     */
+    static List<Change> seriesChanges(long itemId, Recurrence recurrence, BookingStatus from, BookingStatus to) {
+        return recurrence.between(recurrence.getStart(), recurrence.lastEnd()).stream()
+                .map(occurrence -> new Change(itemId, occurrence.getStart(), occurrence.getEnd(), from, to))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Минуты бронирования по месяцам, которые оно задевает.
+     */
+    static Map<BookingStatsId, Long> splitByMonth(Change change) {
+        Map<BookingStatsId, Long> minutes = new LinkedHashMap<>();
+        YearMonth last = YearMonth.from(change.getEnd().minusNanos(1));
+        for (YearMonth month = YearMonth.from(change.getStart()); !month.isAfter(last); month = month.plusMonths(1)) {
+            LocalDateTime from = max(change.getStart(), month.atDay(1).atStartOfDay());
+            LocalDateTime to = min(change.getEnd(), month.plusMonths(1).atDay(1).atStartOfDay());
+            minutes.put(idOf(change.getItemId(), month), Duration.between(from, to).toMinutes());
+        }
+        return minutes;
+    }
+
+    private static BookingStatsId idOf(long itemId, YearMonth month) {
+        return new BookingStatsId(itemId, month.atDay(1));
+    }
+
+    private static LocalDateTime max(LocalDateTime first, LocalDateTime second) {
+        return first.isAfter(second) ? first : second;
+    }
+
+    private static LocalDateTime min(LocalDateTime first, LocalDateTime second) {
+        return first.isBefore(second) ? first : second;
+    }
+
+    /**
+     * Смена статуса бронирования. from == null для нового бронирования.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Change {
+        private final long itemId;
+        private final LocalDateTime start;
+        private final LocalDateTime end;
+        private final BookingStatus from;
+        private final BookingStatus to;
+    }
+}
@@ -0,0 +1,10 @@
+package ru.practicum.shareit.booking.service;
+
+import ru.practicum.shareit.booking.dto.ItemBookingStatsDto;
+
+import java.time.YearMonth;
+import java.util.List;
+
+public interface BookingStatsService {
+    List<ItemBookingStatsDto> getStatsForUserItems(Long userId, YearMonth from, YearMonth to);
+}
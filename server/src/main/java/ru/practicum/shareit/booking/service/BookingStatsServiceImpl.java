@@ -0,0 +1,70 @@
+package ru.practicum.shareit.booking.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dao.BookingStatsRepository;
+import ru.practicum.shareit.booking.dto.ItemBookingStatsDto;
+import ru.practicum.shareit.booking.dto.MonthlyBookingStatsDto;
+import ru.practicum.shareit.booking.model.BookingStats;
+import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.exceptions.IncorrectParamException;
+import ru.practicum.shareit.user.dao.UserRepository;
+
+import java.time.YearMonth;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Service
+@Transactional(readOnly = true)
+public class BookingStatsServiceImpl implements BookingStatsService {
+    static final int MAX_MONTHS = 120;
+
+    private final BookingStatsRepository bookingStatsRepository;
+    private final UserRepository userRepository;
+
+    /**
+     * Статистика читается из booking_stats: по строке на вещь и месяц, без обращения к bookings.
+     */
+    @Override
+    public List<ItemBookingStatsDto> getStatsForUserItems(Long userId, YearMonth from, YearMonth to) {
+        if (from.isAfter(to) || ChronoUnit.MONTHS.between(from, to) >= MAX_MONTHS) {
+            throw new IncorrectParamException(String.format("Период должен быть непустым и не длиннее %d месяцев",
+                    MAX_MONTHS));
+        }
+        List<BookingStats> rows = bookingStatsRepository.findByOwnerIdAndMonthBetween(userId, from.atDay(1), to.atDay(1));
+        if (rows.isEmpty() && !userRepository.existsById(userId)) {
+            throw new EntityNotFoundException(String.format("Пользователя с id %d не найдено", userId));
+        }
+        Map<Long, ItemBookingStatsDto> byItem = new LinkedHashMap<>();
+        for (BookingStats row : rows) {
+            ItemBookingStatsDto item = byItem.computeIfAbsent(row.getId().getItemId(), id -> {
+                ItemBookingStatsDto dto = new ItemBookingStatsDto();
+                dto.setItemId(id);
+                return dto;
+            });
+            item.setBookings(item.getBookings() + row.total());
+            item.setWaiting(item.getWaiting() + row.getWaiting());
+            item.setApproved(item.getApproved() + row.getApproved());
+            item.setRejected(item.getRejected() + row.getRejected());
+            item.setExpired(item.getExpired() + row.getExpired());
+            item.setBookedHours(item.getBookedHours() + hours(row.getBookedMinutes()));
+            item.getMonths().add(new MonthlyBookingStatsDto(YearMonth.from(row.getId().getMonth()), row.total(),
+                    row.getApproved(), row.getRejected(), row.getExpired(), hours(row.getBookedMinutes())));
+        }
+        byItem.values().forEach(item -> {
+            long decided = item.getApproved() + item.getRejected();
+            item.setApprovalRate(decided == 0 ? null : (double) item.getApproved() / decided);
+        });
+        return new ArrayList<>(byItem.values());
+    }
+
+    private static double hours(long minutes) {
+        return minutes / 60.0;
+    }
+}
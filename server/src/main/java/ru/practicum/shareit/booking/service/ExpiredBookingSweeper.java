@@ -0,0 +1,181 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.dao.BookingSlot;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingSeries;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.outbox.OutboxPublisher;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Переводит в EXPIRED бронирования и серии, которые так и не подтвердили до их начала (у серии — до первого вхождения).
+ * Каждая пачка обновляется одним update в отдельной транзакции.
+ */
+@Component
+@Slf4j
+public class ExpiredBookingSweeper {
+    private final BookingRepository bookingRepository;
+    private final BookingSeriesRepository bookingSeriesRepository;
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final ItemLockStripes itemLockStripes;
+    private final OutboxPublisher outboxPublisher;
+    private final BookingStatsRecorder bookingStatsRecorder;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Counter expiredCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+
+    @Autowired
+    public ExpiredBookingSweeper(BookingRepository bookingRepository,
+                                 BookingSeriesRepository bookingSeriesRepository,
+                                 BookingIntervalIndex bookingIntervalIndex,
+                                 ItemLockStripes itemLockStripes,
+                                 OutboxPublisher outboxPublisher,
+                                 BookingStatsRecorder bookingStatsRecorder,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${shareit.booking.expiry.batch-size:1000}") int batchSize) {
+        this.bookingRepository = bookingRepository;
+        this.bookingSeriesRepository = bookingSeriesRepository;
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.itemLockStripes = itemLockStripes;
+        this.outboxPublisher = outboxPublisher;
+        this.bookingStatsRecorder = bookingStatsRecorder;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.expiredCounter = Counter.builder("shareit.bookings.expired")
+                .description("Бронирования, переведённые в EXPIRED")
+                .register(meterRegistry);
+        Gauge.builder("shareit.bookings.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("Сколько ждало самое старое неподтверждённое бронирование на момент прохода")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.booking.expiry.interval-ms:60000}")
+    public void sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        lagSeconds.set(bookingRepository.findMinStartByStatusAndStartBefore(BookingStatus.WAITING, now)
+                .map(oldest -> Duration.between(oldest, now).getSeconds())
+                .orElse(0L));
+        int total = 0;
+        Batch<BookingSlot> batch;
+        do {
+            batch = transactionTemplate.execute(status -> expireBatch(now));
+            List<BookingSlot> expired = batch.expired;
+            if (!expired.isEmpty()) {
+                expired.forEach(slot -> bookingIntervalIndex.remove(slot.getItemId(), slot.getId(), slot.getStartDate()));
+                expiredCounter.increment(expired.size());
+                total += expired.size();
+            }
+        } while (batch.candidates == batchSize);
+        if (total > 0) {
+            log.info("Просрочено {} неподтверждённых бронирований", total);
+        }
+        int totalSeries = 0;
+        Batch<BookingSeries> seriesBatch;
+        do {
+            seriesBatch = transactionTemplate.execute(status -> expireSeriesBatch(now));
+            seriesBatch.expired.forEach(series -> bookingIntervalIndex.removeSeries(series.getItem().getId(), series.getId()));
+            totalSeries += seriesBatch.expired.size();
+        } while (seriesBatch.candidates == batchSize);
+        if (totalSeries > 0) {
+            log.info("Просрочено {} неподтверждённых серий", totalSeries);
+        }
+    }
+
+    /**
+     * Вещи пачки блокируются до конца транзакции, чтобы подтверждение не пересеклось с переводом в EXPIRED.
+     * Возвращает число прочитанных кандидатов и бронирования, которые действительно были переведены:
+     * часть кандидатов могли подтвердить параллельно, и проход продолжается по полной пачке кандидатов.
+     */
+    private Batch<BookingSlot> expireBatch(LocalDateTime now) {
+        List<BookingSlot> candidates = bookingRepository.findSlotsByStatusAndStartBefore(BookingStatus.WAITING, now,
+                PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return new Batch<>(0, List.of());
+        }
+        itemLockStripes.lockAllUntilCompletion(candidates.stream()
+                .map(BookingSlot::getItemId)
+                .collect(Collectors.toList()));
+        Map<Long, BookingSlot> byId = candidates.stream()
+                .collect(Collectors.toMap(BookingSlot::getId, Function.identity()));
+        List<Long> waiting = bookingRepository.findIdsByIdInAndStatus(byId.keySet(), BookingStatus.WAITING);
+        if (!waiting.isEmpty()) {
+            bookingRepository.updateStatus(waiting, BookingStatus.WAITING, BookingStatus.EXPIRED);
+            outboxPublisher.publish(waiting.stream()
+                    .map(id -> new BookingEvent(id, byId.get(id).getItemId(), BookingEventType.EXPIRED, now))
+                    .collect(Collectors.toList()));
+            bookingStatsRecorder.record(waiting.stream()
+                    .map(byId::get)
+                    .map(slot -> new BookingStatsRecorder.Change(slot.getItemId(), slot.getStartDate(), slot.getEndDate(),
+                            BookingStatus.WAITING, BookingStatus.EXPIRED))
+                    .collect(Collectors.toList()));
+        }
+        return new Batch<>(candidates.size(), waiting.stream().map(byId::get).collect(Collectors.toList()));
+    }
+
+    /**
+     * То же для серий: статус меняется у всей серии, счётчики — у каждого её вхождения.
+     */
+    private Batch<BookingSeries> expireSeriesBatch(LocalDateTime now) {
+        List<BookingSeries> candidates = bookingSeriesRepository.findByStatusAndStartBefore(BookingStatus.WAITING, now,
+                PageRequest.of(0, batchSize));
+        if (candidates.isEmpty()) {
+            return new Batch<>(0, List.of());
+        }
+        itemLockStripes.lockAllUntilCompletion(candidates.stream()
+                .map(series -> series.getItem().getId())
+                .collect(Collectors.toList()));
+        Map<Long, BookingSeries> byId = candidates.stream()
+                .collect(Collectors.toMap(BookingSeries::getId, Function.identity()));
+        List<BookingSeries> waiting = bookingSeriesRepository.findIdsByIdInAndStatus(byId.keySet(), BookingStatus.WAITING)
+                .stream()
+                .map(byId::get)
+                .collect(Collectors.toList());
+        if (!waiting.isEmpty()) {
+            bookingSeriesRepository.updateStatus(waiting.stream().map(BookingSeries::getId).collect(Collectors.toList()),
+                    BookingStatus.WAITING, BookingStatus.EXPIRED);
+            outboxPublisher.publish(waiting.stream()
+                    .map(series -> BookingEvent.ofSeries(series.getId(), series.getItem().getId(),
+                            BookingEventType.EXPIRED, now))
+                    .collect(Collectors.toList()));
+            bookingStatsRecorder.record(waiting.stream()
+                    .flatMap(series -> BookingStatsRecorder.seriesChanges(series.getItem().getId(),
+                            series.toRecurrence(), BookingStatus.WAITING, BookingStatus.EXPIRED).stream())
+                    .collect(Collectors.toList()));
+        }
+        return new Batch<>(candidates.size(), waiting);
+    }
+
+    private static final class Batch<T> {
+        private final int candidates;
+        private final List<T> expired;
+
+        private Batch(int candidates, List<T> expired) {
+            this.candidates = candidates;
+            this.expired = expired;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.booking.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * Колесо таймеров: задачи раскладываются по корзинам по номеру тика, в котором они должны сработать.
+ * Постановка и срабатывание задачи стоят O(1), задачи дальше одного оборота колеса ждут в своей корзине.
+ */
+public class HashedTimingWheel<T> {
+    private final long tickMillis;
+    private final List<List<Entry<T>>> buckets;
+    private long currentTick;
+    private int size;
+
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis < 1 || wheelSize < 1) {
+            throw new IllegalArgumentException("Длительность тика и размер колеса должны быть положительными");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new ArrayList<>());
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Задача с уже прошедшим сроком сработает на ближайшем тике.
+     */
+    public synchronized void schedule(long deadlineMillis, T task) {
+        long tick = Math.max(ceilTick(deadlineMillis), currentTick + 1);
+        buckets.get(bucketOf(tick)).add(new Entry<>(tick, task));
+        size++;
+    }
+
+    /**
+     * Прокручивает колесо до момента nowMillis и возвращает сработавшие задачи.
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        long targetTick = nowMillis / tickMillis;
+        List<T> expired = new ArrayList<>();
+        if (targetTick <= currentTick) {
+            return expired;
+        }
+        long lastTick = Math.min(targetTick, currentTick + buckets.size());
+        for (long tick = currentTick + 1; tick <= lastTick; tick++) {
+            Iterator<Entry<T>> iterator = buckets.get(bucketOf(tick)).iterator();
+            while (iterator.hasNext()) {
+                Entry<T> entry = iterator.next();
+                if (entry.deadlineTick <= targetTick) {
+                    expired.add(entry.task);
+                    iterator.remove();
+                    size--;
+                }
+            }
+        }
+        currentTick = targetTick;
+        return expired;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private long ceilTick(long millis) {
+        return Math.floorDiv(millis + tickMillis - 1, tickMillis);
+    }
+
+    private int bucketOf(long tick) {
+        return (int) Math.floorMod(tick, (long) buckets.size());
+    }
+
+    private static final class Entry<T> {
+        private final long deadlineTick;
+        private final T task;
+
+        private Entry(long deadlineTick, T task) {
+            this.deadlineTick = deadlineTick;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Фиксированный набор блокировок, выбираемых по id вещи.
+ * Операции над разными вещами почти всегда попадают в разные блокировки и не ждут друг друга.
+ */
+@Component
+public class ItemLockStripes {
+    private final ReentrantLock[] locks;
+
+    @Autowired
+    public ItemLockStripes(@Value("${shareit.booking.lock-stripes:64}") int stripes) {
+        if (stripes < 1) {
+            throw new IllegalArgumentException("Количество блокировок должно быть положительным");
+        }
+        locks = new ReentrantLock[stripes];
+        for (int i = 0; i < stripes; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Блокировка снимается только после коммита или отката текущей транзакции,
+     * чтобы следующий поток увидел уже зафиксированные изменения.
+     */
+    public void lockUntilCompletion(long itemId) {
+        lockAllUntilCompletion(List.of(itemId));
+    }
+
+    public void lockAllUntilCompletion(Collection<Long> itemIds) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            throw new IllegalStateException("Блокировка вещи возможна только внутри транзакции");
+        }
+        int[] stripes = itemIds.stream()
+                .mapToInt(this::stripeOf)
+                .distinct()
+                .sorted()
+                .toArray();
+        for (int stripe : stripes) {
+            locks[stripe].lock();
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                for (int i = stripes.length - 1; i >= 0; i--) {
+                    locks[stripes[i]].unlock();
+                }
+            }
+        });
+    }
+
+    int stripeOf(long itemId) {
+        return Math.floorMod(Long.hashCode(itemId), locks.length);
+    }
+}
@@ -0,0 +1,36 @@
+package ru.practicum.shareit.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import ru.practicum.shareit.idempotency.IdempotencyFilter;
+import ru.practicum.shareit.idempotency.IdempotencyStore;
+import ru.practicum.shareit.idempotency.InMemoryIdempotencyStore;
+import ru.practicum.shareit.idempotency.PersistentIdempotencyStore;
+import ru.practicum.shareit.idempotency.dao.IdempotencyRecordRepository;
+
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfig {
+
+    @Bean
+    public IdempotencyStore idempotencyStore(IdempotencyRecordRepository repository,
+                                             @Value("${shareit.idempotency.ttl:24h}") Duration ttl,
+                                             @Value("${shareit.idempotency.max-size:10000}") long maxSize,
+                                             @Value("${shareit.idempotency.persistent:false}") boolean persistent) {
+        IdempotencyStore memory = new InMemoryIdempotencyStore(ttl, maxSize);
+        return persistent ? new PersistentIdempotencyStore(memory, repository, ttl) : memory;
+    }
+
+    @Bean
+    public FilterRegistrationBean<IdempotencyFilter> idempotencyFilter(IdempotencyStore idempotencyStore,
+                                                                       ObjectMapper objectMapper) {
+        FilterRegistrationBean<IdempotencyFilter> registration =
+                new FilterRegistrationBean<>(new IdempotencyFilter(idempotencyStore, objectMapper));
+        registration.addUrlPatterns("/bookings", "/bookings/*", "/items", "/items/*");
+        return registration;
+    }
+}
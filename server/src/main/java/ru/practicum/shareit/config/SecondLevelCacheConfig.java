@@ -0,0 +1,60 @@
+package ru.practicum.shareit.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.net.URI;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Регионы второго уровня кэша Hibernate в Caffeine через JCache, у каждого свой размер.
+ * Менеджер кэшей у каждого контекста свой: Hibernate закрывает его вместе с SessionFactory.
+ * Срезы контекста без этой конфигурации (например, @DataJpaTest) получают отдельный менеджер
+ * по hibernate.javax.cache.uri со случайным адресом и регионы без ограничения размера.
+ * Попадания и промахи по регионам публикуются как hibernate.second.level.cache.requests,
+ * hibernate.cache.natural.id.requests и hibernate.cache.query.requests.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    static final String QUERY_RESULTS = "default-query-results-region";
+    static final String UPDATE_TIMESTAMPS = "default-update-timestamps-region";
+
+    @Bean(destroyMethod = "close")
+    public CacheManager secondLevelCacheManager(@Value("${shareit.l2-cache.users:10000}") long users,
+                                                @Value("${shareit.l2-cache.items:50000}") long items,
+                                                @Value("${shareit.l2-cache.requests:10000}") long requests,
+                                                @Value("${shareit.l2-cache.queries:10000}") long queries) {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName())
+                .getCacheManager(URI.create("shareit:second-level-cache:" + UUID.randomUUID()),
+                        SecondLevelCacheConfig.class.getClassLoader());
+        createRegion(cacheManager, "users", OptionalLong.of(users));
+        createRegion(cacheManager, "users-by-email", OptionalLong.of(users));
+        createRegion(cacheManager, "items", OptionalLong.of(items));
+        createRegion(cacheManager, "requests", OptionalLong.of(requests));
+        createRegion(cacheManager, "items-by-request", OptionalLong.of(queries));
+        createRegion(cacheManager, QUERY_RESULTS, OptionalLong.of(queries));
+        // Метки времени изменения таблиц вытеснять нельзя: без них кэш запросов отдаст устаревший результат.
+        createRegion(cacheManager, UPDATE_TIMESTAMPS, OptionalLong.empty());
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager secondLevelCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, secondLevelCacheManager);
+    }
+
+    private static void createRegion(CacheManager cacheManager, String name, OptionalLong maximumSize) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(maximumSize);
+        configuration.setStatisticsEnabled(true);
+        cacheManager.createCache(name, configuration);
+    }
+}
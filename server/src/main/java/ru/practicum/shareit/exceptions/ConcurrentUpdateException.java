@@ -0,0 +1,7 @@
+package ru.practicum.shareit.exceptions;
+
+public class ConcurrentUpdateException extends RuntimeException {
+    public ConcurrentUpdateException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,183 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import ru.practicum.shareit.exceptions.ErrorResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Повтор POST-запроса с тем же Idempotency-Key получает сохранённый ответ, контроллер не вызывается.
+ * Ключ действует в пределах пользователя и пути. Сохраняются только успешные ответы вместе с хэшем тела запроса:
+ * повтор ключа с другим телом получает 422. Ответ отдаётся клиенту до сохранения, и сбой сохранения его не меняет.
+ */
+@Slf4j
+public class IdempotencyFilter extends OncePerRequestFilter {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    static final String USER_HEADER = "X-Sharer-User-Id";
+    static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Set<String> inFlight = ConcurrentHashMap.newKeySet();
+
+    public IdempotencyFilter(IdempotencyStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !"POST".equals(request.getMethod()) || request.getHeader(IDEMPOTENCY_KEY_HEADER) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String idempotencyKey = request.getHeader(IDEMPOTENCY_KEY_HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    String.format("Ключ идемпотентности должен содержать от 1 до %d символов", MAX_KEY_LENGTH));
+            return;
+        }
+        String key = request.getHeader(USER_HEADER) + ":" + request.getRequestURI() + ":" + idempotencyKey;
+        byte[] requestBody = StreamUtils.copyToByteArray(request.getInputStream());
+        String requestHash = hash(requestBody);
+
+        Optional<StoredResponse> stored = store.find(key);
+        if (stored.isPresent()) {
+            if (!Objects.equals(requestHash, stored.get().getRequestHash())) {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        "Ключ идемпотентности уже использован для запроса с другим телом");
+                return;
+            }
+            log.info("Повтор запроса POST к {} с ключом {}, возвращён сохранённый ответ", request.getRequestURI(), idempotencyKey);
+            write(response, stored.get());
+            return;
+        }
+        if (!inFlight.add(key)) {
+            writeError(response, HttpStatus.CONFLICT, "Запрос с этим ключом идемпотентности ещё выполняется");
+            return;
+        }
+        try {
+            ContentCachingResponseWrapper wrapper = new ContentCachingResponseWrapper(response);
+            chain.doFilter(new CachedBodyRequest(request, requestBody), wrapper);
+            StoredResponse result = new StoredResponse(wrapper.getStatus(), wrapper.getContentType(),
+                    wrapper.getContentAsByteArray(), requestHash);
+            wrapper.copyBodyToResponse();
+            response.flushBuffer();
+            if (HttpStatus.valueOf(result.getStatus()).is2xxSuccessful()) {
+                save(key, result);
+            }
+        } finally {
+            inFlight.remove(key);
+        }
+    }
+
+    /**
+     * Изменение уже зафиксировано и ответ отправлен, поэтому сбой сохранения только логируется.
+     */
+    private void save(String key, StoredResponse response) {
+        try {
+            store.save(key, response);
+        } catch (RuntimeException e) {
+            log.warn("Не удалось сохранить ответ для ключа идемпотентности {}", key, e);
+        }
+    }
+
+    private void write(HttpServletResponse response, StoredResponse stored) throws IOException {
+        response.setStatus(stored.getStatus());
+        if (stored.getContentType() != null) {
+            response.setContentType(stored.getContentType());
+        }
+        response.setContentLength(stored.getBody().length);
+        response.getOutputStream().write(stored.getBody());
+    }
+
+    private void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        byte[] body = objectMapper.writeValueAsBytes(new ErrorResponse(message));
+        write(response, new StoredResponse(status.value(), MediaType.APPLICATION_JSON_VALUE, body, null));
+    }
+
+    private static String hash(byte[] body) {
+        try {
+            return Base64.getEncoder().encodeToString(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Тело запроса прочитано фильтром для хэша, контроллер получает его копию.
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream input = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public boolean isFinished() {
+                    return input.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+
+                @Override
+                public int read() {
+                    return input.read();
+                }
+
+                @Override
+                public int read(byte[] buffer, int offset, int length) {
+                    return input.read(buffer, offset, length);
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() {
+            String encoding = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(new ByteArrayInputStream(body),
+                    encoding == null ? StandardCharsets.UTF_8 : Charset.forName(encoding)));
+        }
+    }
+}
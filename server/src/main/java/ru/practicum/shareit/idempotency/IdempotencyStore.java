@@ -0,0 +1,9 @@
+package ru.practicum.shareit.idempotency;
+
+import java.util.Optional;
+
+public interface IdempotencyStore {
+    Optional<StoredResponse> find(String key);
+
+    void save(String key, StoredResponse response);
+}
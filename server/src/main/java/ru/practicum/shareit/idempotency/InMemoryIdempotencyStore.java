@@ -0,0 +1,31 @@
+package ru.practicum.shareit.idempotency;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Ограниченный по размеру кэш ответов, записи живут не дольше ttl.
+ */
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Cache<String, StoredResponse> responses;
+
+    public InMemoryIdempotencyStore(Duration ttl, long maxSize) {
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        return Optional.ofNullable(responses.getIfPresent(key));
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        responses.put(key, response);
+    }
+}
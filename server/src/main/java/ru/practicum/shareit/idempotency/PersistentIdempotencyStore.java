@@ -0,0 +1,57 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import ru.practicum.shareit.idempotency.dao.IdempotencyRecordRepository;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Ответы хранятся в таблице idempotency_keys и переживают перезапуск сервера.
+ * Повторы сначала ищутся в памяти, в базу запрос идёт только при промахе.
+ */
+@Slf4j
+public class PersistentIdempotencyStore implements IdempotencyStore {
+    private final IdempotencyStore memory;
+    private final IdempotencyRecordRepository repository;
+    private final Duration ttl;
+
+    public PersistentIdempotencyStore(IdempotencyStore memory, IdempotencyRecordRepository repository, Duration ttl) {
+        this.memory = memory;
+        this.repository = repository;
+        this.ttl = ttl;
+    }
+
+    @Override
+    public Optional<StoredResponse> find(String key) {
+        Optional<StoredResponse> cached = memory.find(key);
+        if (cached.isPresent()) {
+            return cached;
+        }
+        Optional<StoredResponse> stored = repository.findByKeyAndCreatedAfter(key, LocalDateTime.now().minus(ttl))
+                .map(record -> new StoredResponse(record.getStatus(), record.getContentType(),
+                        record.getBody() == null ? new byte[0] : record.getBody().getBytes(StandardCharsets.UTF_8),
+                        record.getRequestHash()));
+        stored.ifPresent(response -> memory.save(key, response));
+        return stored;
+    }
+
+    @Override
+    public void save(String key, StoredResponse response) {
+        memory.save(key, response);
+        repository.save(new IdempotencyRecord(key, response.getStatus(), response.getContentType(),
+                new String(response.getBody(), StandardCharsets.UTF_8), response.getRequestHash(), LocalDateTime.now()));
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.idempotency.purge-interval-ms:600000}")
+    public void purgeExpired() {
+        int deleted = repository.deleteByCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (deleted > 0) {
+            log.info("Удалено {} устаревших ключей идемпотентности", deleted);
+        }
+    }
+}
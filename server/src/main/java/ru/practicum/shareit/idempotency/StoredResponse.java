@@ -0,0 +1,16 @@
+package ru.practicum.shareit.idempotency;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class StoredResponse {
+    private int status;
+    private String contentType;
+    private byte[] body;
+    /**
+     * SHA-256 тела запроса в Base64: повтор ключа с другим телом не получает чужой ответ.
+     */
+    private String requestHash;
+}
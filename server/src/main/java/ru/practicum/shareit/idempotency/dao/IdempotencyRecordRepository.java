@@ -0,0 +1,20 @@
+package ru.practicum.shareit.idempotency.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    Optional<IdempotencyRecord> findByKeyAndCreatedAfter(String key, LocalDateTime created);
+
+    @Modifying
+    @Transactional
+    @Query("delete from IdempotencyRecord r where r.created < :created")
+    int deleteByCreatedBefore(@Param("created") LocalDateTime created);
+}
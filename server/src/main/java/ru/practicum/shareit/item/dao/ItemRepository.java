@@ -1,21 +1,65 @@
 package ru.practicum.shareit.item.dao;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import ru.practicum.shareit.item.model.Item;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     List<Item> findAllByOwnerId(Long userId, Pageable pageable);
 
+    /**
+     * Сначала совпадения словом в названии, затем подстрокой в названии, словом в описании, подстрокой в описании.
+     * Словом считается совпадение, ограниченное пробелами или краями строки. Внутри группы - по возрастанию id.
+     */
     @Query(value = "select it from Item as it where it.available = true " +
             "and (lower(it.name) like lower(concat('%', :text,'%')) " +
-            "or lower(it.description) like lower(concat('%', :text,'%')))")
-    Page<Item> searchByText(@Param("text") String text, Pageable pageable);
+            "or lower(it.description) like lower(concat('%', :text,'%'))) " +
+            "order by case " +
+            "when lower(it.name) = lower(:text) or lower(it.name) like lower(concat(:text, ' %')) " +
+            "or lower(it.name) like lower(concat('% ', :text)) " +
+            "or lower(it.name) like lower(concat('% ', :text, ' %')) then 3 " +
+            "when lower(it.name) like lower(concat('%', :text, '%')) then 2 " +
+            "when lower(it.description) = lower(:text) or lower(it.description) like lower(concat(:text, ' %')) " +
+            "or lower(it.description) like lower(concat('% ', :text)) " +
+            "or lower(it.description) like lower(concat('% ', :text, ' %')) then 1 " +
+            "else 0 end desc, it.id")
+    Slice<Item> searchByText(@Param("text") String text, Pageable pageable);
 
+    /**
+     * Только для PostgreSQL: ILIKE по name и description обслуживается GIN-индексами pg_trgm.
+     * Порядок тот же, что у searchByText.
+     */
+    @Query(value = "SELECT * FROM items WHERE available = true " +
+            "AND (name ILIKE '%' || :text || '%' OR description ILIKE '%' || :text || '%') " +
+            "ORDER BY CASE " +
+            "WHEN name ILIKE :text OR name ILIKE :text || ' %' OR name ILIKE '% ' || :text " +
+            "OR name ILIKE '% ' || :text || ' %' THEN 3 " +
+            "WHEN name ILIKE '%' || :text || '%' THEN 2 " +
+            "WHEN description ILIKE :text OR description ILIKE :text || ' %' OR description ILIKE '% ' || :text " +
+            "OR description ILIKE '% ' || :text || ' %' THEN 1 " +
+            "ELSE 0 END DESC, id", nativeQuery = true)
+    Slice<Item> searchByTextTrigram(@Param("text") String text, Pageable pageable);
+
+    /**
+     * Результат кэшируется в регионе items-by-request и сбрасывается при любом изменении таблицы items.
+     */
+    @QueryHints({@QueryHint(name = org.hibernate.annotations.QueryHints.CACHEABLE, value = "true"),
+            @QueryHint(name = org.hibernate.annotations.QueryHints.CACHE_REGION, value = "items-by-request")})
     List<Item> findAllByRequestId(Long requestId);
+
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "r.id as requestId from Item i left join i.request r where i.id > :afterId order by i.id")
+    List<ItemSearchView> findSearchViewsAfter(@Param("afterId") long afterId, Pageable pageable);
+
+    @Query("select i from Item i left join fetch i.owner left join fetch i.request r left join fetch r.requestor " +
+            "where i.id in :ids")
+    List<Item> findAllWithOwnerByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.item.dao;
+
+public interface ItemSearchView {
+    Long getId();
+
+    String getName();
+
+    String getDescription();
+
+    Boolean getAvailable();
+
+    Long getRequestId();
+}
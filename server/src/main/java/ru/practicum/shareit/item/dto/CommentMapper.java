@@ -2,6 +2,7 @@ package ru.practicum.shareit.item.dto;
 
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
+import ru.practicum.shareit.item.dao.CommentView;
 import ru.practicum.shareit.item.model.Comment;
 
 @Mapper(componentModel = "spring")
@@ -10,4 +11,6 @@ public interface CommentMapper {
 
     @Mapping(target = "authorName", source = "author.name")
     CommentDto commentToDto(Comment comment);
+
+    CommentDto viewToDto(CommentView view);
 }
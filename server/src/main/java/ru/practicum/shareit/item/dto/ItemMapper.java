@@ -6,6 +6,7 @@ import ru.practicum.shareit.item.model.Item;
 
 @Mapper(componentModel = "spring")
 public interface ItemMapper {
+    @Mapping(target = "version", ignore = true)
     Item dtoToItem(ItemDto itemDto);
 
     @Mapping(
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск запросом к базе. На PostgreSQL используется ILIKE, который обслуживают GIN-индексы pg_trgm
+ * из schema-postgresql.sql, на остальных базах - JPQL с lower(...) like. Результат - Slice, без запроса count.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "database")
+@Transactional(readOnly = true)
+@Slf4j
+public class DatabaseItemTextSearch implements ItemTextSearch {
+    private final ItemRepository itemRepository;
+    private final ItemMapper itemMapper;
+    private final boolean postgres;
+
+    @Autowired
+    public DatabaseItemTextSearch(ItemRepository itemRepository,
+                                  ItemMapper itemMapper,
+                                  @Value("${spring.datasource.url:}") String datasourceUrl) {
+        this.itemRepository = itemRepository;
+        this.itemMapper = itemMapper;
+        this.postgres = datasourceUrl.startsWith("jdbc:postgresql:");
+        log.info("Поиск вещей через базу, {}", postgres ? "индексы pg_trgm" : "JPQL");
+    }
+
+    @Override
+    public List<ItemDto> search(String text, int offset, int limit) {
+        Pageable pageable = PageRequest.of(offset / limit, limit);
+        Slice<Item> items = postgres
+                ? itemRepository.searchByTextTrigram(text, pageable)
+                : itemRepository.searchByText(text, pageable);
+        return items.stream()
+                .map(itemMapper::itemToDto)
+                .collect(Collectors.toList());
+    }
+
+    boolean isPostgres() {
+        return postgres;
+    }
+}
@@ -0,0 +1,106 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.Recurrence;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.exceptions.IncorrectParamException;
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Почасовой календарь занятости вещи на горизонт вперёд: бит на час, час занят, если его задевает хоть одно
+ * бронирование или вхождение серии. Календарь строится из BookingIntervalIndex без обращений к базе
+ * и перестраивается, когда меняется версия вещи в индексе или начинается новый час.
+ */
+@Component
+public class ItemAvailabilityIndex {
+    private final BookingIntervalIndex bookingIntervalIndex;
+    private final int hours;
+    private final Cache<Long, Calendar> calendars;
+
+    @Autowired
+    public ItemAvailabilityIndex(BookingIntervalIndex bookingIntervalIndex,
+                                 @Value("${shareit.availability.horizon-days:180}") int horizonDays,
+                                 @Value("${shareit.availability.max-items:10000}") long maxItems) {
+        this.bookingIntervalIndex = bookingIntervalIndex;
+        this.hours = horizonDays * 24;
+        this.calendars = Caffeine.newBuilder().maximumSize(maxItems).build();
+    }
+
+    /**
+     * Свободные и занятые промежутки [from, to) по порядку. Прошедшие часы не возвращаются,
+     * границы занятых промежутков округляются до часа наружу.
+     */
+    public List<AvailabilityRangeDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime origin = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime horizon = origin.plusHours(hours);
+        LocalDateTime start = from.isBefore(origin) ? origin : from;
+        if (!start.isBefore(to) || to.isAfter(horizon)) {
+            throw new IncorrectParamException(String.format("Окно должно быть непустым, в будущем и не дальше %d дней",
+                    hours / 24));
+        }
+        BitSet busy = calendar(itemId, origin).busy;
+        int first = (int) hourIndex(origin, start);
+        int last = (int) hourIndex(origin, to.minusNanos(1));
+
+        List<AvailabilityRangeDto> ranges = new ArrayList<>();
+        int index = first;
+        while (index <= last) {
+            boolean free = !busy.get(index);
+            int next = free ? busy.nextSetBit(index) : busy.nextClearBit(index);
+            if (next < 0 || next > last) {
+                next = last + 1;
+            }
+            LocalDateTime rangeStart = index == first ? start : origin.plusHours(index);
+            LocalDateTime rangeEnd = next > last ? to : origin.plusHours(next);
+            ranges.add(new AvailabilityRangeDto(rangeStart, rangeEnd, free));
+            index = next;
+        }
+        return ranges;
+    }
+
+    private Calendar calendar(long itemId, LocalDateTime origin) {
+        long version = bookingIntervalIndex.version(itemId);
+        Calendar cached = calendars.getIfPresent(itemId);
+        if (cached != null && cached.version == version && cached.origin.equals(origin)) {
+            return cached;
+        }
+        BitSet busy = new BitSet(hours);
+        for (Recurrence.Occurrence interval : bookingIntervalIndex.busyBetween(itemId, origin, origin.plusHours(hours))) {
+            int from = (int) Math.max(0, hourIndex(origin, interval.getStart()));
+            int to = (int) Math.min(hours, hourIndex(origin, interval.getEnd().minusNanos(1)) + 1);
+            if (from < to) {
+                busy.set(from, to);
+            }
+        }
+        Calendar calendar = new Calendar(origin, version, busy);
+        calendars.put(itemId, calendar);
+        return calendar;
+    }
+
+    private static long hourIndex(LocalDateTime origin, LocalDateTime time) {
+        return Math.floorDiv(Duration.between(origin, time).toMinutes(), 60);
+    }
+
+    private static final class Calendar {
+        private final LocalDateTime origin;
+        private final long version;
+        private final BitSet busy;
+
+        private Calendar(LocalDateTime origin, long version, BitSet busy) {
+            this.origin = origin;
+            this.version = version;
+            this.busy = busy;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.item.dto.ItemExtendedDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.LongFunction;
+
+/**
+ * Собранные карточки вещей для GET /items/{id}: общая с комментариями и отдельная для владельца
+ * с последним и ближайшим бронированием. Вещь загружает один поток, остальные запросы к ней ждут
+ * его результата; загрузка идёт в транзакции только для чтения, попадание в кэш к базе не обращается.
+ * Карточка владельца живёт до начала ближайшего бронирования, обе - не дольше ttl.
+ */
+@Component
+public class ItemDetailCache {
+    private final TransactionTemplate transactionTemplate;
+    private final Cache<Long, Details> details;
+    private final Cache<Long, ItemExtendedDto> ownerViews;
+
+    @Autowired
+    public ItemDetailCache(PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.item-cache.max-items:10000}") long maxItems,
+                           @Value("${shareit.item-cache.ttl-seconds:300}") long ttlSeconds) {
+        Duration ttl = Duration.ofSeconds(ttlSeconds);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.details = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.ownerViews = Caffeine.newBuilder()
+                .maximumSize(maxItems)
+                .expireAfter(new UntilNextBooking(ttl))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, details, "items.details");
+        CaffeineCacheMetrics.monitor(meterRegistry, ownerViews, "items.owner-views");
+    }
+
+    public Details getDetails(long itemId, LongFunction<Details> loader) {
+        return details.get(itemId, id -> transactionTemplate.execute(status -> loader.apply(id)));
+    }
+
+    public ItemExtendedDto getOwnerView(long itemId, LongFunction<ItemExtendedDto> loader) {
+        return ownerViews.get(itemId, id -> transactionTemplate.execute(status -> loader.apply(id)));
+    }
+
+    /**
+     * Вещь или её комментарии изменились: сбрасываются обе карточки.
+     * Идущая загрузка этой вещи дожидается окончания и тоже сбрасывается.
+     */
+    public void invalidate(long itemId) {
+        details.invalidate(itemId);
+        ownerViews.invalidate(itemId);
+    }
+
+    /**
+     * Подтверждено бронирование вещей: сбрасываются только карточки владельца.
+     */
+    public void invalidateOwnerViews(Collection<Long> itemIds) {
+        ownerViews.invalidateAll(itemIds);
+    }
+
+    /**
+     * Общая карточка и владелец вещи, по которому выбирается карточка для запроса.
+     */
+    @Getter
+    @AllArgsConstructor
+    public static final class Details {
+        private final long ownerId;
+        private final ItemExtendedDto item;
+    }
+
+    private static final class UntilNextBooking implements Expiry<Long, ItemExtendedDto> {
+        private final Duration ttl;
+
+        private UntilNextBooking(Duration ttl) {
+            this.ttl = ttl;
+        }
+
+        @Override
+        public long expireAfterCreate(Long itemId, ItemExtendedDto item, long currentTime) {
+            BookingForItemDto next = item.getNextBooking();
+            if (next == null) {
+                return ttl.toNanos();
+            }
+            Duration untilStart = Duration.between(LocalDateTime.now(), next.getStart());
+            return untilStart.isNegative() ? 0 : untilStart.compareTo(ttl) < 0 ? untilStart.toNanos() : ttl.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(Long itemId, ItemExtendedDto item, long currentTime, long currentDuration) {
+            return expireAfterCreate(itemId, item, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long itemId, ItemExtendedDto item, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
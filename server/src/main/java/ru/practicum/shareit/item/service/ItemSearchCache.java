@@ -0,0 +1,77 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Кэш страниц поиска вещей. Ключом служит текст в нижнем регистре: поиск не учитывает регистр,
+ * поэтому такие запросы дают одну и ту же страницу. Пробелы значимы и не обрезаются, а в поиск уходит исходный текст.
+ * В ключ входит версия каталога: создание и изменение вещи её увеличивают, и старые записи
+ * больше не находятся, а вытесняются по размеру или ttl.
+ */
+@Component
+public class ItemSearchCache {
+    private final ItemTextSearch itemTextSearch;
+    private final Cache<Key, List<ItemDto>> pages;
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    @Autowired
+    public ItemSearchCache(ItemTextSearch itemTextSearch,
+                           MeterRegistry meterRegistry,
+                           @Value("${shareit.search.cache.max-entries:10000}") long maxEntries,
+                           @Value("${shareit.search.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.itemTextSearch = itemTextSearch;
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "items.search");
+    }
+
+    public List<ItemDto> search(String text, int offset, int limit) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        Key key = new Key(catalogVersion.get(), normalize(text), offset, limit);
+        return pages.get(key, page -> List.copyOf(itemTextSearch.search(text, page.offset, page.limit)));
+    }
+
+    /**
+     * Вызывается после коммита, когда поисковый индекс уже видит изменение.
+     */
+    public void catalogChanged() {
+        catalogVersion.incrementAndGet();
+    }
+
+    static String normalize(String text) {
+        return text.toLowerCase(Locale.ROOT);
+    }
+
+    @EqualsAndHashCode
+    private static final class Key {
+        private final long version;
+        private final String text;
+        private final int offset;
+        private final int limit;
+
+        private Key(long version, String text, int offset, int limit) {
+            this.version = version;
+            this.text = text;
+            this.offset = offset;
+            this.limit = limit;
+        }
+    }
+}
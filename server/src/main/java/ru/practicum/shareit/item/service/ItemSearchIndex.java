@@ -0,0 +1,236 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dao.ItemSearchView;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import javax.annotation.PostConstruct;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Поиск вещей по подстроке в названии или описании без обращения к базе.
+ * Для каждой вещи хранятся триграммы обоих полей в нижнем регистре. Кандидаты на запрос из трёх и более
+ * символов берутся из самого короткого списка триграмм запроса и проверяются по вхождению подстроки,
+ * короткие запросы проверяются перебором. Для страницы держится куча из offset + limit
+ * лучших совпадений, но не больше числа вещей в индексе.
+ */
+@Component
+@ConditionalOnProperty(name = "shareit.search.engine", havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+@Slf4j
+public class ItemSearchIndex implements ItemTextSearch {
+    static final int GRAM = 3;
+    private static final int REBUILD_BATCH = 1000;
+    private static final Comparator<Match> BY_RELEVANCE = Comparator.<Match>comparingInt(match -> match.score)
+            .reversed()
+            .thenComparingLong(match -> match.entry.id);
+
+    private final ItemRepository itemRepository;
+    private final NavigableMap<Long, Entry> entries = new TreeMap<>();
+    private final Map<String, Set<Long>> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            postings.clear();
+            long afterId = 0;
+            List<ItemSearchView> batch;
+            do {
+                batch = itemRepository.findSearchViewsAfter(afterId, PageRequest.of(0, REBUILD_BATCH));
+                for (ItemSearchView view : batch) {
+                    add(new Entry(view.getId(), view.getName(), view.getDescription(), view.getAvailable(),
+                            view.getRequestId()));
+                    afterId = view.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+            log.info("Поисковый индекс вещей построен: {} вещей, {} триграмм", entries.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void put(ItemDto item) {
+        Entry entry = new Entry(item.getId(), item.getName(), item.getDescription(), item.getAvailable(),
+                item.getRequestId());
+        lock.writeLock().lock();
+        try {
+            remove(item.getId());
+            add(entry);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Доступные вещи, в названии или описании которых есть text без учёта регистра, по релевантности.
+     */
+    @Override
+    public List<ItemDto> search(String text, int offset, int limit) {
+        if (offset < 0 || limit <= 0) {
+            return List.of();
+        }
+        String query = normalize(text);
+        PriorityQueue<Match> best = new PriorityQueue<>(BY_RELEVANCE.reversed());
+        lock.readLock().lock();
+        try {
+            if (offset >= entries.size()) {
+                return List.of();
+            }
+            // Совпадений не больше, чем вещей, поэтому offset + limit ограничивается их числом.
+            int wanted = (int) Math.min((long) offset + limit, entries.size());
+            for (Entry entry : candidates(query)) {
+                if (!entry.matches(query)) {
+                    continue;
+                }
+                best.add(new Match(entry, entry.score(query)));
+                if (best.size() > wanted) {
+                    best.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return best.stream()
+                .sorted(BY_RELEVANCE)
+                .skip(offset)
+                .map(match -> match.entry.toDto())
+                .collect(Collectors.toList());
+    }
+
+    private Collection<Entry> candidates(String query) {
+        if (query.length() < GRAM) {
+            return entries.values();
+        }
+        Set<Long> candidates = null;
+        for (String gram : grams(query)) {
+            Set<Long> posting = postings.getOrDefault(gram, Collections.emptySet());
+            if (candidates == null || posting.size() < candidates.size()) {
+                candidates = posting;
+            }
+        }
+        return candidates.stream()
+                .map(entries::get)
+                .collect(Collectors.toList());
+    }
+
+    private void add(Entry entry) {
+        entries.put(entry.id, entry);
+        Set<String> grams = grams(entry.name);
+        grams.addAll(grams(entry.description));
+        for (String gram : grams) {
+            postings.computeIfAbsent(gram, key -> new HashSet<>()).add(entry.id);
+        }
+    }
+
+    private void remove(long id) {
+        Entry previous = entries.remove(id);
+        if (previous == null) {
+            return;
+        }
+        Set<String> grams = grams(previous.name);
+        grams.addAll(grams(previous.description));
+        for (String gram : grams) {
+            Set<Long> posting = postings.get(gram);
+            if (posting != null && posting.remove(id) && posting.isEmpty()) {
+                postings.remove(gram);
+            }
+        }
+    }
+
+    static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(text.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    /**
+     * Вхождение query, ограниченное пробелами или краями строки, как в ItemRepository.searchByText.
+     */
+    static boolean containsWord(String text, String query) {
+        for (int i = text.indexOf(query); i >= 0; i = text.indexOf(query, i + 1)) {
+            int end = i + query.length();
+            if ((i == 0 || text.charAt(i - 1) == ' ') && (end == text.length() || text.charAt(end) == ' ')) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.toLowerCase(Locale.ROOT);
+    }
+
+    private static final class Match {
+        private final Entry entry;
+        private final int score;
+
+        private Match(Entry entry, int score) {
+            this.entry = entry;
+            this.score = score;
+        }
+    }
+
+    private static final class Entry {
+        private final long id;
+        private final String originalName;
+        private final String originalDescription;
+        private final String name;
+        private final String description;
+        private final boolean available;
+        private final Long requestId;
+
+        private Entry(long id, String name, String description, Boolean available, Long requestId) {
+            this.id = id;
+            this.originalName = name;
+            this.originalDescription = description;
+            this.name = normalize(name);
+            this.description = normalize(description);
+            this.available = Boolean.TRUE.equals(available);
+            this.requestId = requestId;
+        }
+
+        private boolean matches(String query) {
+            return available && (name.contains(query) || description.contains(query));
+        }
+
+        private int score(String query) {
+            if (containsWord(name, query)) {
+                return 3;
+            }
+            if (name.contains(query)) {
+                return 2;
+            }
+            return containsWord(description, query) ? 1 : 0;
+        }
+
+        private ItemDto toDto() {
+            return new ItemDto(id, originalName, originalDescription, available, requestId);
+        }
+    }
+}
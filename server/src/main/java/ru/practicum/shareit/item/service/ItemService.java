@@ -1,9 +1,12 @@
 package ru.practicum.shareit.item.service;
 
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 public interface ItemService {
@@ -19,4 +22,8 @@ public interface ItemService {
     List<ItemDto> searchItemsByName(String text, Long userId, int from, int size);
 
     CommentDto addComment(Long userId, Long itemId, CommentDto commentDto);
+
+    List<AvailabilityRangeDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to);
+
+    List<ItemSuggestionDto> suggest(String prefix);
 }
@@ -6,26 +6,34 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import ru.practicum.shareit.booking.dao.AdjacentBooking;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.dto.BookingMapper;
-import ru.practicum.shareit.booking.model.Booking;
-import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.IncorrectParamException;
 import ru.practicum.shareit.item.dao.CommentRepository;
+import ru.practicum.shareit.item.dao.CommentView;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.dto.*;
 import ru.practicum.shareit.item.model.Comment;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.request.dao.RequestRepository;
+import ru.practicum.shareit.retry.OptimisticRetry;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.service.UserService;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor(onConstructor_ = @Autowired)
@@ -38,9 +46,16 @@ public class ItemServiceImpl implements ItemService {
     private final UserService userService;
     private final UserRepository userRepository;
     private final BookingRepository bookingRepository;
+    private final BookingArchiveRepository bookingArchiveRepository;
     private final CommentRepository commentRepository;
     private final CommentMapper commentMapper;
     private final RequestRepository requestRepository;
+    private final ItemAvailabilityIndex itemAvailabilityIndex;
+    private final OptimisticRetry optimisticRetry;
+    private final ItemTextSearch itemTextSearch;
+    private final ItemDetailCache itemDetailCache;
+    private final ItemSearchCache itemSearchCache;
+    private final ItemSuggestIndex itemSuggestIndex;
 
     @Override
     @Transactional
@@ -52,13 +67,22 @@ public class ItemServiceImpl implements ItemService {
                     .findById(itemDto.getRequestId())
                     .orElseThrow(() -> new EntityNotFoundException(String.format("Запроса с id %d не найдено", itemDto.getRequestId()))));
         }
-        return itemMapper.itemToDto(itemRepository.save(item));
+        ItemDto saved = itemMapper.itemToDto(itemRepository.save(item));
+        afterCommit(() -> {
+            itemTextSearch.put(saved);
+            itemSuggestIndex.put(saved);
+            itemSearchCache.catalogChanged();
+        });
+        return saved;
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ItemDto updateItem(Long itemId, ItemDto item, Long userId) {
+        return optimisticRetry.execute("item.update", () -> update(itemId, item, userId));
+    }
 
+    private ItemDto update(Long itemId, ItemDto item, Long userId) {
         Item targetItem = itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Предмета с id %d не найдено", itemId)));
         if (targetItem.getOwner().getId() != userId) {
@@ -78,62 +102,124 @@ public class ItemServiceImpl implements ItemService {
                     .findById(item.getRequestId())
                     .orElseThrow(() -> new EntityNotFoundException(String.format("Запроса с id %d не найдено", item.getRequestId()))));
         }
-        return itemMapper.itemToDto(itemRepository.save(targetItem));
+        ItemDto saved = itemMapper.itemToDto(itemRepository.save(targetItem));
+        afterCommit(() -> {
+            itemTextSearch.put(saved);
+            itemSuggestIndex.put(saved);
+            itemSearchCache.catalogChanged();
+            itemDetailCache.invalidate(itemId);
+        });
+        return saved;
     }
 
+    /**
+     * Карточки берутся из ItemDetailCache, транзакцию при промахе открывает кэш.
+     * Карточка владельца собирается из общей, прочитанной заново внутри загрузки: прочитанная до неё
+     * могла устареть, если между ними вещь сбросили.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public ItemExtendedDto getItemById(long itemId, Long userId) {
+        ItemDetailCache.Details details = itemDetailCache.getDetails(itemId, this::loadDetails);
+        if (userId == null || details.getOwnerId() != userId) {
+            return details.getItem();
+        }
+        return itemDetailCache.getOwnerView(itemId,
+                id -> withBookings(itemDetailCache.getDetails(id, this::loadDetails).getItem()));
+    }
+
+    private ItemDetailCache.Details loadDetails(long itemId) {
         Item item = itemRepository.findById(itemId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Предмета с id %d не найдено", itemId)));
 
         ItemExtendedDto itemExtendedDto = itemMapper.itemToExtDto(item);
+        itemExtendedDto.setComments(getComments(List.of(itemId)).getOrDefault(itemId, List.of()));
+        return new ItemDetailCache.Details(item.getOwner().getId(), itemExtendedDto);
+    }
 
-        if (item.getOwner().getId() == userId) {
-            setBookingsToItem(itemExtendedDto);
-        }
-        itemExtendedDto.setComments(getComments(itemId));
-        return itemExtendedDto;
+    private ItemExtendedDto withBookings(ItemExtendedDto item) {
+        ItemExtendedDto ownerView = ItemExtendedDto.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .comments(item.getComments())
+                .build();
+        setBookingsToItems(List.of(ownerView));
+        return ownerView;
     }
 
     @Override
     public List<ItemExtendedDto> getUserItems(Long userId, int from, int size) {
         userService.getUser(userId);
         Pageable pageable = PageRequest.of(from / size, size, Sort.by("id").ascending());
-        return itemRepository.findAllByOwnerId(userId, pageable).stream()
-                .map(item -> {
-                    ItemExtendedDto dto = itemMapper.itemToExtDto(item);
-                    setBookingsToItem(dto);
-                    dto.setComments(getComments(item.getId()));
-                    return dto;
-                })
-                .collect(Collectors.toUnmodifiableList());
+        List<ItemExtendedDto> items = itemRepository.findAllByOwnerId(userId, pageable).stream()
+                .map(itemMapper::itemToExtDto)
+                .collect(Collectors.toList());
+        if (items.isEmpty()) {
+            return List.of();
+        }
+        setBookingsToItems(items);
+        Map<Long, List<CommentDto>> comments = getComments(items.stream()
+                .map(ItemExtendedDto::getId)
+                .collect(Collectors.toList()));
+        items.forEach(item -> item.setComments(comments.getOrDefault(item.getId(), List.of())));
+        return Collections.unmodifiableList(items);
     }
 
+    /**
+     * Страницы те же, что были у запроса к базе: номер from / size.
+     * Транзакцию при промахе кэша при необходимости открывает реализация поиска.
+     */
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public List<ItemDto> searchItemsByName(String text, Long userId, int from, int size) {
-        if (text.isEmpty()) {
-            return new ArrayList<>();
-        }
-        Pageable pageable = PageRequest.of(from / size, size, Sort.by("id").ascending());
-        return itemRepository.searchByText(text, pageable).stream()
-                .map(item -> itemMapper.itemToDto(item))
-                .collect(Collectors.toList());
+        return itemSearchCache.search(text, from / size * size, size);
     }
 
-    private void setBookingsToItem(ItemExtendedDto item) {
-        Booking nextBooking = bookingRepository
-                .findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(item.getId(), LocalDateTime.now(), BookingStatus.APPROVED).orElse(null);
-        Booking lastBooking = bookingRepository
-                .findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(item.getId(), LocalDateTime.now(), BookingStatus.APPROVED).orElse(null);
-        item.setNextBooking(bookingMapper.bookingToBookingItemDto(nextBooking));
-        item.setLastBooking(bookingMapper.bookingToBookingItemDto(lastBooking));
+    /**
+     * Отвечает из памяти, поэтому транзакция не открывается.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<AvailabilityRangeDto> getAvailability(long itemId, LocalDateTime from, LocalDateTime to) {
+        return itemAvailabilityIndex.getAvailability(itemId, from, to);
+    }
+
+    /**
+     * Отвечает из памяти, поэтому транзакция не открывается.
+     */
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<ItemSuggestionDto> suggest(String prefix) {
+        return itemSuggestIndex.suggest(prefix);
+    }
+
+    /**
+     * Последнее и ближайшее бронирования всех вещей одним запросом к базе.
+     */
+    private void setBookingsToItems(List<ItemExtendedDto> items) {
+        if (items.isEmpty()) {
+            return;
+        }
+        Map<Long, ItemExtendedDto> byId = items.stream()
+                .collect(Collectors.toMap(ItemExtendedDto::getId, Function.identity()));
+        for (AdjacentBooking booking : bookingRepository.findLastAndNextApproved(byId.keySet(), LocalDateTime.now())) {
+            ItemExtendedDto item = byId.get(booking.getItemId());
+            if (booking.isNext()) {
+                item.setNextBooking(bookingMapper.adjacentToBookingItemDto(booking));
+            } else {
+                item.setLastBooking(bookingMapper.adjacentToBookingItemDto(booking));
+            }
+        }
     }
 
     @Override
     @Transactional
     public CommentDto addComment(Long userId, Long itemId, CommentDto commentDto) {
 
-        if (bookingRepository.findByBookerIdAndItemIdAndEndBefore(userId, itemId, LocalDateTime.now()).size() == 0) {
+        if (bookingRepository.findByBookerIdAndItemIdAndEndBefore(userId, itemId, LocalDateTime.now()).size() == 0
+                && !bookingArchiveRepository.existsByBookerIdAndItemIdAndEndBefore(userId, itemId, LocalDateTime.now())) {
             throw new IncorrectParamException("Вещь не была арендована");
         }
         User user = userRepository.findById(userId).orElseThrow(() -> new EntityNotFoundException(String.format("Пользователь с id %d не найден", userId)));
@@ -144,13 +230,31 @@ public class ItemServiceImpl implements ItemService {
         comment.setItem(item);
         comment.setAuthor(user);
 
-        return commentMapper.commentToDto(commentRepository.saveAndFlush(comment));
+        CommentDto saved = commentMapper.commentToDto(commentRepository.saveAndFlush(comment));
+        afterCommit(() -> itemDetailCache.invalidate(itemId));
+        return saved;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
     }
 
-    private List<CommentDto> getComments(Long itemId) {
-        return commentRepository.findAllByItemId(itemId)
+    /**
+     * Комментарии вещей одним запросом, сгруппированные по id вещи.
+     */
+    private Map<Long, List<CommentDto>> getComments(Collection<Long> itemIds) {
+        return commentRepository.findViewsByItemIdIn(itemIds)
                 .stream()
-                .map(commentMapper::commentToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.groupingBy(CommentView::getItemId,
+                        Collectors.mapping(commentMapper::viewToDto, Collectors.toList())));
     }
 }
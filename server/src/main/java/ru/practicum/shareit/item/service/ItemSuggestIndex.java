@@ -0,0 +1,187 @@
+package ru.practicum.shareit.item.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dao.ItemSearchView;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * Подсказки по началу слова из названий доступных вещей. Слова хранятся в префиксном дереве, популярность
+ * слова - число доступных вещей, в названии которых оно есть. Каждый узел держит готовый список из size
+ * самых популярных слов своего поддерева: при изменении слова списки пересчитываются вверх по его пути
+ * из списков детей, поэтому ответ - это спуск по префиксу.
+ */
+@Component
+@Slf4j
+public class ItemSuggestIndex {
+    private static final int REBUILD_BATCH = 1000;
+    private static final Comparator<ItemSuggestionDto> BY_POPULARITY = Comparator
+            .comparingInt(ItemSuggestionDto::getItems)
+            .reversed()
+            .thenComparing(ItemSuggestionDto::getText);
+
+    private final ItemRepository itemRepository;
+    private final int size;
+    private final Map<Long, Set<String>> wordsByItem = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private Node root = new Node(null);
+
+    @Autowired
+    public ItemSuggestIndex(ItemRepository itemRepository,
+                            @Value("${shareit.suggest.size:10}") int size) {
+        this.itemRepository = itemRepository;
+        this.size = size;
+    }
+
+    @PostConstruct
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            root = new Node(null);
+            wordsByItem.clear();
+            long afterId = 0;
+            List<ItemSearchView> batch;
+            do {
+                batch = itemRepository.findSearchViewsAfter(afterId, PageRequest.of(0, REBUILD_BATCH));
+                for (ItemSearchView view : batch) {
+                    update(view.getId(), Boolean.TRUE.equals(view.getAvailable()) ? words(view.getName()) : Set.of());
+                    afterId = view.getId();
+                }
+            } while (batch.size() == REBUILD_BATCH);
+            log.info("Индекс подсказок построен: {} вещей", wordsByItem.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void put(ItemDto item) {
+        Set<String> words = Boolean.TRUE.equals(item.getAvailable()) ? words(item.getName()) : Set.of();
+        lock.writeLock().lock();
+        try {
+            update(item.getId(), words);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Самые популярные слова, начинающиеся с prefix без учёта регистра.
+     */
+    public List<ItemSuggestionDto> suggest(String prefix) {
+        String query = prefix == null ? "" : prefix.trim().toLowerCase(Locale.ROOT);
+        if (query.isEmpty()) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            Node node = root;
+            for (int i = 0; i < query.length() && node != null; i++) {
+                node = node.children.get(query.charAt(i));
+            }
+            return node == null ? List.of() : node.top;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void update(long itemId, Set<String> words) {
+        Set<String> previous = wordsByItem.getOrDefault(itemId, Set.of());
+        for (String word : previous) {
+            if (!words.contains(word)) {
+                change(word, -1);
+            }
+        }
+        for (String word : words) {
+            if (!previous.contains(word)) {
+                change(word, 1);
+            }
+        }
+        if (words.isEmpty()) {
+            wordsByItem.remove(itemId);
+        } else {
+            wordsByItem.put(itemId, words);
+        }
+    }
+
+    private void change(String word, int delta) {
+        List<Node> path = new ArrayList<>(word.length() + 1);
+        Node node = root;
+        path.add(node);
+        for (int i = 0; i < word.length(); i++) {
+            node = node.children.computeIfAbsent(word.charAt(i), Node::new);
+            path.add(node);
+        }
+        node.items += delta;
+        for (int i = path.size() - 1; i >= 0; i--) {
+            Node current = path.get(i);
+            if (i > 0 && current.items == 0 && current.children.isEmpty()) {
+                path.get(i - 1).children.remove(current.key);
+            } else {
+                recompute(current, word.substring(0, i));
+            }
+        }
+    }
+
+    /**
+     * Лучшие слова узла - его собственное слово и лучшие слова детей.
+     */
+    private void recompute(Node node, String word) {
+        List<ItemSuggestionDto> candidates = new ArrayList<>();
+        if (node.items > 0) {
+            candidates.add(new ItemSuggestionDto(word, node.items));
+        }
+        node.children.values().forEach(child -> candidates.addAll(child.top));
+        node.top = candidates.stream()
+                .sorted(BY_POPULARITY)
+                .limit(size)
+                .collect(Collectors.toUnmodifiableList());
+    }
+
+    static Set<String> words(String text) {
+        Set<String> words = new LinkedHashSet<>();
+        if (text == null) {
+            return words;
+        }
+        int start = -1;
+        String lower = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean letter = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (letter && start < 0) {
+                start = i;
+            } else if (!letter && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static final class Node {
+        private final Character key;
+        private final Map<Character, Node> children = new HashMap<>();
+        private int items;
+        private List<ItemSuggestionDto> top = List.of();
+
+        private Node(Character key) {
+            this.key = key;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.service;
+
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+/**
+ * Поиск доступных вещей по подстроке в названии или описании. Порядок по релевантности: совпадение словом
+ * в названии, подстрокой в названии, словом в описании, подстрокой в описании; внутри группы - по возрастанию id.
+ * Словом считается совпадение, ограниченное пробелами или краями строки, в обеих реализациях.
+ * Реализация выбирается свойством shareit.search.engine: memory (по умолчанию) или database.
+ */
+public interface ItemTextSearch {
+    List<ItemDto> search(String text, int offset, int limit);
+
+    /**
+     * Вызывается после коммита создания или изменения вещи.
+     */
+    default void put(ItemDto item) {
+    }
+}
@@ -0,0 +1,54 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.outbox.dao.OutboxEventRepository;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Пишет события в outbox в транзакции вызывающего. Вне транзакции вызов завершается ошибкой,
+ * иначе событие могло бы пережить откат изменения или потеряться после коммита.
+ */
+@Component
+@RequiredArgsConstructor(onConstructor_ = @Autowired)
+public class OutboxPublisher {
+    private final OutboxEventRepository outboxEventRepository;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(BookingEventType type, Long bookingId, Long itemId) {
+        publish(List.of(new BookingEvent(bookingId, itemId, type, LocalDateTime.now())));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void publish(List<BookingEvent> events) {
+        outboxEventRepository.saveAll(events.stream()
+                .map(this::toOutboxEvent)
+                .collect(Collectors.toList()));
+    }
+
+    private OutboxEvent toOutboxEvent(BookingEvent event) {
+        try {
+            return OutboxEvent.builder()
+                    .itemId(event.getItemId())
+                    .type(event.getType().name())
+                    .payload(objectMapper.writeValueAsString(event))
+                    .created(event.getOccurredAt())
+                    .nextAttemptAt(event.getOccurredAt())
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Не удалось сериализовать событие " + event, e);
+        }
+    }
+}
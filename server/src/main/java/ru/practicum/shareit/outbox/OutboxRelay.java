@@ -0,0 +1,150 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventBus;
+import ru.practicum.shareit.outbox.dao.DeadLetterEventRepository;
+import ru.practicum.shareit.outbox.dao.OutboxEventRepository;
+import ru.practicum.shareit.outbox.model.DeadLetterEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+/**
+ * Переносит события из outbox в шину пачками. Доставленные события удаляются,
+ * на сбое событие откладывается с растущей паузой, а после maxAttempts попыток уходит в outbox_dead_letters.
+ * Пока первое событие вещи ждёт повтора, следующие события этой вещи не доставляются и в пачку не выбираются.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+    static final long MAX_BACKOFF_MS = 300_000;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final DeadLetterEventRepository deadLetterEventRepository;
+    private final BookingEventBus bookingEventBus;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final long backoffMs;
+
+    @Autowired
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       DeadLetterEventRepository deadLetterEventRepository,
+                       BookingEventBus bookingEventBus,
+                       ObjectMapper objectMapper,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${shareit.outbox.batch-size:200}") int batchSize,
+                       @Value("${shareit.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${shareit.outbox.backoff-ms:1000}") long backoffMs) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.deadLetterEventRepository = deadLetterEventRepository;
+        this.bookingEventBus = bookingEventBus;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+        this.backoffMs = backoffMs;
+    }
+
+    @Scheduled(fixedDelayString = "${shareit.outbox.interval-ms:500}")
+    public void drain() {
+        int fetched;
+        int processed;
+        do {
+            LocalDateTime now = LocalDateTime.now();
+            List<OutboxEvent> batch = outboxEventRepository.findBatch(now, PageRequest.of(0, batchSize));
+            fetched = batch.size();
+            processed = fetched == 0 ? 0 : relay(batch, now);
+        } while (fetched == batchSize && processed > 0);
+    }
+
+    /**
+     * Возвращает число событий, судьба которых решена в этом проходе: доставленных, отложенных и отброшенных.
+     */
+    private int relay(List<OutboxEvent> batch, LocalDateTime now) {
+        Map<Long, List<OutboxEvent>> byItem = batch.stream()
+                .collect(Collectors.groupingBy(OutboxEvent::getItemId, LinkedHashMap::new, Collectors.toList()));
+        Map<Long, List<BookingEvent>> parsedByItem = new LinkedHashMap<>();
+        Map<Long, CompletableFuture<BookingEventBus.Delivery>> deliveries = new LinkedHashMap<>();
+        byItem.forEach((itemId, events) -> {
+            if (events.get(0).getNextAttemptAt().isAfter(now)) {
+                return;
+            }
+            List<BookingEvent> parsed = parse(events);
+            parsedByItem.put(itemId, parsed);
+            deliveries.put(itemId, bookingEventBus.deliver(itemId, parsed));
+        });
+
+        List<Long> delivered = new ArrayList<>();
+        List<OutboxEvent> retried = new ArrayList<>();
+        List<DeadLetterEvent> dead = new ArrayList<>();
+        deliveries.forEach((itemId, future) -> {
+            List<OutboxEvent> events = byItem.get(itemId);
+            BookingEventBus.Delivery delivery = future.join();
+            events.subList(0, delivery.getDelivered()).forEach(event -> delivered.add(event.getId()));
+            if (delivery.getDelivered() == events.size()) {
+                return;
+            }
+            OutboxEvent failed = events.get(delivery.getDelivered());
+            boolean unreadable = delivery.getDelivered() == parsedByItem.get(itemId).size();
+            failed.setAttempts(failed.getAttempts() + 1);
+            if (unreadable || failed.getAttempts() >= maxAttempts) {
+                dead.add(DeadLetterEvent.of(failed, unreadable ? "Некорректное событие" : delivery.getError(), now));
+            } else {
+                failed.setNextAttemptAt(now.plusNanos(backoff(failed.getAttempts()) * 1_000_000));
+                retried.add(failed);
+            }
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            List<Long> removed = new ArrayList<>(delivered);
+            dead.forEach(event -> removed.add(event.getId()));
+            if (!removed.isEmpty()) {
+                outboxEventRepository.deleteByIdIn(removed);
+            }
+            deadLetterEventRepository.saveAll(dead);
+            outboxEventRepository.saveAll(retried);
+        });
+        if (!dead.isEmpty()) {
+            log.error("{} событий не доставлено и перенесено в outbox_dead_letters", dead.size());
+        }
+        return delivered.size() + retried.size() + dead.size();
+    }
+
+    /**
+     * Разбирает события вещи по порядку до первого нечитаемого: события после него ждут, пока оно не уйдёт в dead letters.
+     */
+    private List<BookingEvent> parse(List<OutboxEvent> events) {
+        List<BookingEvent> parsed = new ArrayList<>();
+        for (OutboxEvent event : events) {
+            try {
+                parsed.add(objectMapper.readValue(event.getPayload(), BookingEvent.class));
+            } catch (JsonProcessingException e) {
+                log.error("Не удалось разобрать событие {} из outbox: {}", event.getId(), e.getMessage());
+                break;
+            }
+        }
+        return parsed;
+    }
+
+    private long backoff(int attempts) {
+        return Math.min(MAX_BACKOFF_MS, backoffMs << Math.min(attempts - 1, 20));
+    }
+}
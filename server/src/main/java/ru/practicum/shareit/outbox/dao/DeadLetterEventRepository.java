@@ -0,0 +1,9 @@
+package ru.practicum.shareit.outbox.dao;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.outbox.model.DeadLetterEvent;
+
+@Repository
+public interface DeadLetterEventRepository extends JpaRepository<DeadLetterEvent, Long> {
+}
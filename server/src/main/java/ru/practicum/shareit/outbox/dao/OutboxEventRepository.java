@@ -0,0 +1,28 @@
+package ru.practicum.shareit.outbox.dao;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    /**
+     * События вещей, у которых нет более раннего или этого же события, ждущего повтора:
+     * отложенная вещь не занимает места в пачке и не задерживает остальные.
+     */
+    @Query("select e from OutboxEvent e where not exists (select w.id from OutboxEvent w " +
+            "where w.itemId = e.itemId and w.id <= e.id and w.nextAttemptAt > :now) order by e.id")
+    List<OutboxEvent> findBatch(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("delete from OutboxEvent e where e.id in :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
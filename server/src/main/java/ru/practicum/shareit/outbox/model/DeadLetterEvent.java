@@ -0,0 +1,38 @@
+package ru.practicum.shareit.outbox.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Событие, которое не удалось доставить за отведённое число попыток.
+ */
+@AllArgsConstructor
+@NoArgsConstructor
+@Data
+@Entity
+@Table(name = "outbox_dead_letters")
+@Builder
+public class DeadLetterEvent {
+    @Id
+    private Long id;
+    @Column(name = "item_id")
+    private Long itemId;
+    @Column(name = "event_type")
+    private String type;
+    private String payload;
+    private LocalDateTime created;
+    private int attempts;
+    private String error;
+    @Column(name = "failed_at")
+    private LocalDateTime failedAt;
+
+    public static DeadLetterEvent of(OutboxEvent event, String error, LocalDateTime failedAt) {
+        return new DeadLetterEvent(event.getId(), event.getItemId(), event.getType(), event.getPayload(),
+                event.getCreated(), event.getAttempts(), error, failedAt);
+    }
+}
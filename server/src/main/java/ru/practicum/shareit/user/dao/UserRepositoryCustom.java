@@ -0,0 +1,12 @@
+package ru.practicum.shareit.user.dao;
+
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+
+public interface UserRepositoryCustom {
+    /**
+     * Поиск по email как по natural id: при попадании в кэш users-by-email запроса к базе нет.
+     */
+    Optional<User> findByEmail(String email);
+}
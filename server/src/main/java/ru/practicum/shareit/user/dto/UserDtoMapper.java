@@ -1,10 +1,12 @@
 package ru.practicum.shareit.user.dto;
 
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import ru.practicum.shareit.user.model.User;
 
 @Mapper(componentModel = "spring")
 public interface UserDtoMapper {
+    @Mapping(target = "version", ignore = true)
     User dtoToUser(UserDto userDto);
 
     UserDto userToDto(User user);
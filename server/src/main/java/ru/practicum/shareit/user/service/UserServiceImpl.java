@@ -5,9 +5,11 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exceptions.EmailBelongsToOtherUserException;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.retry.OptimisticRetry;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserDtoMapper;
@@ -23,6 +25,7 @@ import java.util.stream.Collectors;
 public class UserServiceImpl implements UserService {
     private final UserDtoMapper userDtoMapper;
     private final UserRepository userRepository;
+    private final OptimisticRetry optimisticRetry;
 
     @Override
     @Transactional
@@ -36,8 +39,12 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserDto updateUser(long userId, UserDto userDto) {
+        return optimisticRetry.execute("user.update", () -> update(userId, userDto));
+    }
+
+    private UserDto update(long userId, UserDto userDto) {
         User userTarget = userRepository.findById(userId)
                 .orElseThrow(() -> new EntityNotFoundException(String.format("Пользователя с id %d не найдено", userId)));
         if (userDto.getName() != null) {
@@ -75,7 +82,7 @@ public class UserServiceImpl implements UserService {
     }
 
     private boolean checkEmail(User user) {
-        return userRepository.findAll().stream().filter(user1 -> user1.getEmail().equals(user.getEmail())).collect(Collectors.toList()).size() > 0;
+        return userRepository.findByEmail(user.getEmail()).isPresent();
     }
 
     private boolean checkIfUserExists(Long userId) {
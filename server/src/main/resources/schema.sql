@@ -1,10 +1,13 @@
-DROP TABLE IF EXISTS requests, comments,bookings,items, users;
+DROP TABLE IF EXISTS requests, comments,bookings,bookings_archive,booking_series,booking_stats,items, users, idempotency_keys, outbox_events, outbox_dead_letters;
+DROP SEQUENCE IF EXISTS bookings_seq;
+DROP SEQUENCE IF EXISTS outbox_seq;
 
 
 CREATE TABLE IF NOT EXISTS users (
     id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
     name VARCHAR(255) NOT NULL,
     email VARCHAR(512) NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_user PRIMARY KEY (id),
     CONSTRAINT UQ_USER_EMAIL UNIQUE (email)
     );
@@ -24,20 +27,94 @@ CREATE TABLE IF NOT EXISTS Items (
     description varchar(200) NOT NULL,
     available boolean,
     request_id bigint,
+    version BIGINT DEFAULT 0 NOT NULL,
     CONSTRAINT pk_items PRIMARY KEY (id),
     CONSTRAINT fk_owner_id FOREIGN KEY (owner_id) REFERENCES users (id),
     CONSTRAINT fk_request_id FOREIGN KEY (request_id) REFERENCES requests (id)
     );
 
+CREATE SEQUENCE IF NOT EXISTS bookings_seq START WITH 1 INCREMENT BY 50;
+
 CREATE TABLE IF NOT EXISTS bookings (
-    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    id BIGINT NOT NULL,
     start_date TIMESTAMP WITHOUT TIME ZONE,
     end_date TIMESTAMP WITHOUT TIME ZONE,
     item_id bigint NOT NULL,
     booker_id bigint NOT NULL,
+    owner_id bigint,
     status varchar(200),
+    lifecycle varchar(20),
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_bookings PRIMARY KEY (id),
     CONSTRAINT fk_booking_booker_id FOREIGN KEY (booker_id) REFERENCES users (id),
-    CONSTRAINT  fk_item_id FOREIGN KEY (item_id) REFERENCES Items (id)
+    CONSTRAINT  fk_item_id FOREIGN KEY (item_id) REFERENCES Items (id),
+    CONSTRAINT fk_booking_owner_id FOREIGN KEY (owner_id) REFERENCES users (id)
+    );
+
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_start ON bookings (owner_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_start ON bookings (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_status ON bookings (owner_id, status);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_status ON bookings (booker_id, status);
+CREATE INDEX IF NOT EXISTS ix_bookings_owner_lifecycle ON bookings (owner_id, lifecycle, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_booker_lifecycle ON bookings (booker_id, lifecycle, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_lifecycle_end ON bookings (lifecycle, end_date);
+
+CREATE TABLE IF NOT EXISTS bookings_archive (
+    id BIGINT NOT NULL,
+    start_date TIMESTAMP WITHOUT TIME ZONE,
+    end_date TIMESTAMP WITHOUT TIME ZONE,
+    item_id bigint NOT NULL,
+    booker_id bigint NOT NULL,
+    owner_id bigint,
+    status varchar(200),
+    archived TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_bookings_archive PRIMARY KEY (id),
+    CONSTRAINT fk_archive_booker_id FOREIGN KEY (booker_id) REFERENCES users (id),
+    CONSTRAINT fk_archive_item_id FOREIGN KEY (item_id) REFERENCES Items (id),
+    CONSTRAINT fk_archive_owner_id FOREIGN KEY (owner_id) REFERENCES users (id)
+    );
+
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_owner_start ON bookings_archive (owner_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_booker_start ON bookings_archive (booker_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_archive_item_start ON bookings_archive (item_id, start_date DESC);
+CREATE INDEX IF NOT EXISTS ix_bookings_end ON bookings (end_date);
+CREATE INDEX IF NOT EXISTS ix_bookings_item_start ON bookings (item_id, start_date);
+
+CREATE TABLE IF NOT EXISTS booking_series (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
+    item_id bigint NOT NULL,
+    booker_id bigint NOT NULL,
+    owner_id bigint,
+    start_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    frequency varchar(20) NOT NULL,
+    repeat_interval INTEGER NOT NULL,
+    until_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    last_end_date TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    status varchar(200),
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_booking_series PRIMARY KEY (id),
+    CONSTRAINT fk_series_booker_id FOREIGN KEY (booker_id) REFERENCES users (id),
+    CONSTRAINT fk_series_item_id FOREIGN KEY (item_id) REFERENCES Items (id),
+    CONSTRAINT fk_series_owner_id FOREIGN KEY (owner_id) REFERENCES users (id)
+    );
+
+CREATE INDEX IF NOT EXISTS ix_booking_series_item_last_end ON booking_series (item_id, last_end_date);
+CREATE INDEX IF NOT EXISTS ix_booking_series_booker_start ON booking_series (booker_id, start_date);
+CREATE INDEX IF NOT EXISTS ix_booking_series_owner_start ON booking_series (owner_id, start_date);
+CREATE INDEX IF NOT EXISTS ix_booking_series_status_start ON booking_series (status, start_date);
+
+CREATE TABLE IF NOT EXISTS booking_stats (
+    item_id bigint NOT NULL,
+    stat_month DATE NOT NULL,
+    waiting BIGINT DEFAULT 0 NOT NULL,
+    approved BIGINT DEFAULT 0 NOT NULL,
+    rejected BIGINT DEFAULT 0 NOT NULL,
+    canceled BIGINT DEFAULT 0 NOT NULL,
+    expired BIGINT DEFAULT 0 NOT NULL,
+    booked_minutes BIGINT DEFAULT 0 NOT NULL,
+    version BIGINT DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_booking_stats PRIMARY KEY (item_id, stat_month)
     );
 
 CREATE TABLE IF NOT EXISTS comments (
@@ -48,4 +125,43 @@ CREATE TABLE IF NOT EXISTS comments (
     created TIMESTAMP WITHOUT TIME ZONE,
     CONSTRAINT fk_author_id FOREIGN KEY (author_id) REFERENCES users (id),
     CONSTRAINT  fk_comment_item_id FOREIGN KEY (item_id) REFERENCES Items (id)
-    );
\ No newline at end of file
+    );
+
+CREATE TABLE IF NOT EXISTS idempotency_keys (
+    idempotency_key varchar(512) NOT NULL,
+    status INTEGER NOT NULL,
+    content_type varchar(255),
+    body TEXT,
+    request_hash varchar(64) NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_idempotency_keys PRIMARY KEY (idempotency_key)
+    );
+
+CREATE INDEX IF NOT EXISTS ix_idempotency_keys_created ON idempotency_keys (created);
+
+CREATE SEQUENCE IF NOT EXISTS outbox_seq START WITH 1 INCREMENT BY 50;
+
+CREATE TABLE IF NOT EXISTS outbox_events (
+    id BIGINT NOT NULL,
+    item_id bigint NOT NULL,
+    event_type varchar(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_outbox_events PRIMARY KEY (id)
+    );
+
+CREATE INDEX IF NOT EXISTS ix_outbox_events_item ON outbox_events (item_id, id);
+
+CREATE TABLE IF NOT EXISTS outbox_dead_letters (
+    id BIGINT NOT NULL,
+    item_id bigint NOT NULL,
+    event_type varchar(50) NOT NULL,
+    payload TEXT NOT NULL,
+    created TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    attempts INTEGER NOT NULL,
+    error TEXT,
+    failed_at TIMESTAMP WITHOUT TIME ZONE NOT NULL,
+    CONSTRAINT pk_outbox_dead_letters PRIMARY KEY (id)
+    );
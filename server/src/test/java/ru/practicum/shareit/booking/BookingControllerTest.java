@@ -13,15 +13,28 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
+import ru.practicum.shareit.booking.dto.ItemBookingStatsDto;
+import ru.practicum.shareit.booking.dto.MultiBookingRequestDto;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.SeriesFrequency;
+import ru.practicum.shareit.booking.service.BookingSeriesService;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.booking.service.BookingStatsService;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.user.model.User;
 
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
@@ -35,6 +48,10 @@ class BookingControllerTest {
     private ObjectMapper objectMapper;
     @MockBean
     private BookingService bookingService;
+    @MockBean
+    private BookingSeriesService bookingSeriesService;
+    @MockBean
+    private BookingStatsService bookingStatsService;
 
     Booking booking;
     BookingDto bookingDto;
@@ -146,4 +163,142 @@ class BookingControllerTest {
                 .andExpect(MockMvcResultMatchers.status().isOk())
                 .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1));
     }
-}
\ No newline at end of file
+
+    @Test
+    @SneakyThrows
+    void getAllBookingsByUserId_withCursor() {
+        Mockito.when(bookingService.getBookingsByUserIdAfter(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+                .thenReturn(new BookingPage(List.of(bookingDto), "next"));
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/bookings")
+                        .param("cursor", "")
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().string("X-Next-Cursor", "next"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @SneakyThrows
+    void getAllBookingsForUserItems_withCursor_whenLastPage_thenNoHeader() {
+        Mockito.when(bookingService.getBookingsForUserItemsAfter(ArgumentMatchers.anyLong(), ArgumentMatchers.anyString(), ArgumentMatchers.anyString(), ArgumentMatchers.anyInt()))
+                .thenReturn(new BookingPage(List.of(bookingDto), null));
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/bookings/owner")
+                        .param("cursor", "abc")
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.header().doesNotExist("X-Next-Cursor"))
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    @SneakyThrows
+    void approveBookings() {
+        List<BookingApprovalDto> approvals = List.of(new BookingApprovalDto(1L, true), new BookingApprovalDto(2L, false));
+        Mockito.when(bookingService.approveBookings(ArgumentMatchers.anyList(), ArgumentMatchers.anyLong()))
+                .thenReturn(List.of(BookingApprovalResultDto.applied(1L, BookingStatus.APPROVED),
+                        BookingApprovalResultDto.failed(2L, "Запроса с id 2 не найдено")));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.patch("/bookings/batch")
+                        .content(objectMapper.writeValueAsString(approvals))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].error", is("Запроса с id 2 не найдено")));
+
+        Mockito.verify(bookingService).approveBookings(approvals, 1L);
+    }
+
+    @Test
+    @SneakyThrows
+    void createBookings() {
+        MultiBookingRequestDto request = new MultiBookingRequestDto();
+        request.setItemIds(List.of(1L, 2L));
+        request.setStart(bookingRequestDto.getStart());
+        request.setEnd(bookingRequestDto.getEnd());
+        Mockito.when(bookingService.createBookings(ArgumentMatchers.any(MultiBookingRequestDto.class), ArgumentMatchers.anyLong()))
+                .thenReturn(List.of(bookingDto, bookingDto));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/bookings/multi")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(MockMvcResultMatchers.jsonPath("$.length()").value(2));
+    }
+
+    @Test
+    @SneakyThrows
+    void createSeries() {
+        BookingSeriesRequestDto request = new BookingSeriesRequestDto();
+        request.setItemId(1L);
+        request.setStart(bookingRequestDto.getStart());
+        request.setEnd(bookingRequestDto.getStart().plusDays(2));
+        request.setFrequency(SeriesFrequency.WEEKLY);
+        request.setInterval(1);
+        request.setUntil(bookingRequestDto.getEnd());
+        BookingSeriesDto seriesDto = new BookingSeriesDto();
+        seriesDto.setId(1L);
+        seriesDto.setFrequency(SeriesFrequency.WEEKLY);
+        Mockito.when(bookingSeriesService.createSeries(ArgumentMatchers.any(BookingSeriesRequestDto.class), ArgumentMatchers.anyLong()))
+                .thenReturn(seriesDto);
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.post("/bookings/series")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1)
+                        .characterEncoding(StandardCharsets.UTF_8))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$.id", is(1)))
+                .andExpect(jsonPath("$.frequency", is("WEEKLY")));
+
+        Mockito.verify(bookingSeriesService).createSeries(request, 1L);
+    }
+
+    @Test
+    @SneakyThrows
+    void getOccurrencesForUserItems() {
+        LocalDateTime from = LocalDateTime.of(2024, 5, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 6, 1, 0, 0);
+        Mockito.when(bookingSeriesService.getOccurrencesForUserItems(1L, from, to))
+                .thenReturn(List.of(new BookingOccurrenceDto(1L, 1L, 2L, from, from.plusDays(1), BookingStatus.APPROVED)));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/bookings/owner/series")
+                        .param("from", "2024-05-01T00:00:00")
+                        .param("to", "2024-06-01T00:00:00")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$[0].seriesId", is(1)))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")));
+    }
+
+    @Test
+    @SneakyThrows
+    void getStatsForUserItems() {
+        ItemBookingStatsDto stats = new ItemBookingStatsDto();
+        stats.setItemId(1L);
+        stats.setApproved(3);
+        Mockito.when(bookingStatsService.getStatsForUserItems(1L, YearMonth.of(2024, 1), YearMonth.of(2024, 6)))
+                .thenReturn(List.of(stats));
+
+        mockMvc.perform(
+                MockMvcRequestBuilders.get("/bookings/owner/stats")
+                        .param("from", "2024-01")
+                        .param("to", "2024-06")
+                        .header("X-Sharer-User-Id", 1))
+                .andExpect(MockMvcResultMatchers.status().isOk())
+                .andExpect(jsonPath("$[0].itemId", is(1)))
+                .andExpect(jsonPath("$[0].approved", is(3)));
+    }
+}
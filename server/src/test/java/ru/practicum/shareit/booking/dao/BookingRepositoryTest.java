@@ -1,13 +1,19 @@
 package ru.practicum.shareit.booking.dao;
 
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
@@ -17,6 +23,7 @@ import ru.practicum.shareit.user.model.User;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 @DataJpaTest
@@ -31,6 +38,12 @@ class BookingRepositoryTest {
     @Autowired
     private ItemRepository itemRepository;
 
+    @Autowired
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
     private User user;
     private Item item = new Item();
     private Booking booking;
@@ -59,102 +72,278 @@ class BookingRepositoryTest {
         bookingRepository.save(booking);
     }
 
+    private List<Booking> findBookings(BookingRole role, BookingState state) {
+        return bookingRepository.findBookings(role, user.getId(), state, null, 0, 10);
+    }
+
     @AfterEach
     private void deleteRequest() {
+        bookingArchiveRepository.deleteAll();
         bookingRepository.deleteAll();
         userRepository.deleteAll();
         itemRepository.deleteAll();
     }
 
     @Test
-    void findByBookerIdOrderByStartDesc() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> list = bookingRepository.findByBookerIdOrderByStartDesc(user.getId(), pageable).toList();
+    void save_thenOwnerIdIsCopiedFromItem() {
+        assertEquals(user.getId(), bookingRepository.findById(booking.getId()).get().getOwnerId());
+    }
 
-        assertTrue(list.size() == 1);
+    @Test
+    void save_thenLifecycleIsComputed() {
+        assertEquals(BookingLifecycle.PAST, bookingRepository.findById(booking.getId()).get().getLifecycle());
     }
 
     @Test
-    void findByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> list = bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(user.getId(),
-                LocalDateTime.of(2024, 5, 25, 2, 15),
-                LocalDateTime.of(2024, 5, 25, 3, 15), pageable);
+    void findBookings_ALL() {
+        assertTrue(findBookings(BookingRole.BOOKER, BookingState.ALL).size() == 1);
+        assertTrue(findBookings(BookingRole.OWNER, BookingState.ALL).size() == 1);
+    }
 
-        assertTrue(list.size() == 1);
+    @Test
+    void findBookings_CURRENT() {
+        booking.setLifecycle(BookingLifecycle.CURRENT);
+        bookingRepository.save(booking);
+
+        assertTrue(findBookings(BookingRole.BOOKER, BookingState.CURRENT).size() == 1);
+        assertTrue(findBookings(BookingRole.OWNER, BookingState.CURRENT).size() == 1);
     }
 
     @Test
-    void findByBookerIdAndStartAfterAndEndAfterOrderByStartDesc() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> list = bookingRepository.findByBookerIdAndStartAfterAndEndAfterOrderByStartDesc(user.getId(),
-                LocalDateTime.of(2023, 5, 25, 2, 15),
-                LocalDateTime.of(2023, 5, 25, 3, 15), pageable);
+    void findBookings_FUTURE() {
+        booking.setLifecycle(BookingLifecycle.FUTURE);
+        bookingRepository.save(booking);
 
-        assertTrue(list.size() == 1);
+        assertTrue(findBookings(BookingRole.BOOKER, BookingState.FUTURE).size() == 1);
+        assertTrue(findBookings(BookingRole.OWNER, BookingState.FUTURE).size() == 1);
+        assertTrue(findBookings(BookingRole.OWNER, BookingState.PAST).isEmpty());
     }
 
     @Test
-    void findByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> list = bookingRepository.findByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(user.getId(),
-                LocalDateTime.of(2025, 5, 25, 2, 15),
-                LocalDateTime.of(2025, 5, 25, 3, 15), pageable);
+    void findBookings_PAST() {
+        assertTrue(findBookings(BookingRole.BOOKER, BookingState.PAST).size() == 1);
+        assertTrue(findBookings(BookingRole.OWNER, BookingState.PAST).size() == 1);
+    }
 
-        assertTrue(list.size() == 1);
+    @Test
+    void findBookings_WAITING() {
+        assertTrue(findBookings(BookingRole.BOOKER, BookingState.WAITING).size() == 1);
+        assertTrue(findBookings(BookingRole.OWNER, BookingState.WAITING).size() == 1);
     }
 
     @Test
-    void findByBookerIdAndStatusOrderByStartDesc() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> list = bookingRepository.findByBookerIdAndStatusOrderByStartDesc(user.getId(), BookingStatus.WAITING, pageable);
+    void findBookings_REJECTED() {
+        assertTrue(findBookings(BookingRole.BOOKER, BookingState.REJECTED).isEmpty());
+        assertTrue(findBookings(BookingRole.OWNER, BookingState.REJECTED).isEmpty());
+    }
 
-        assertTrue(list.size() == 1);
+    @Test
+    void findBookings_whenOtherUser_thenEmpty() {
+        List<Booking> list = bookingRepository.findBookings(BookingRole.BOOKER, user.getId() + 1, BookingState.ALL,
+                null, 0, 10);
+
+        assertTrue(list.isEmpty());
     }
 
     @Test
-    void findByItemOwnerIdOrderByStartDesc() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> list = bookingRepository.findByItemOwnerIdOrderByStartDesc(user.getId(), pageable);
+    void findBookings_withOffset() {
+        assertTrue(bookingRepository.findBookings(BookingRole.BOOKER, user.getId(), BookingState.ALL,
+                null, 1, 10).isEmpty());
+    }
 
-        assertTrue(list.size() == 1);
+    @Test
+    void findSlotsByStatusInAndEndAfter() {
+        List<BookingSlot> slots = bookingRepository.findSlotsByStatusInAndEndAfter(List.of(BookingStatus.WAITING),
+                LocalDateTime.of(2024, 5, 25, 2, 15));
+
+        assertTrue(slots.size() == 1);
+        assertEquals(item.getId(), slots.get(0).getItemId().longValue());
+        assertEquals(booking.getEnd(), slots.get(0).getEndDate());
     }
 
     @Test
-    void findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> list = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(user.getId(),
-                LocalDateTime.of(2024, 5, 25, 2, 15),
-                LocalDateTime.of(2024, 5, 25, 3, 15), pageable);
+    void findBookings_withCursor() {
+        Booking later = Booking.builder()
+                .start(booking.getStart().plusDays(1))
+                .end(booking.getEnd())
+                .status(BookingStatus.WAITING)
+                .booker(user)
+                .item(item)
+                .build();
+        bookingRepository.save(later);
+
+        List<Booking> first = bookingRepository.findBookings(BookingRole.OWNER, user.getId(), BookingState.ALL,
+                null, 0, 1);
+        List<Booking> second = bookingRepository.findBookings(BookingRole.OWNER, user.getId(), BookingState.ALL,
+                BookingCursor.of(first.get(0)), 0, 1);
+        List<Booking> third = bookingRepository.findBookings(BookingRole.OWNER, user.getId(), BookingState.ALL,
+                BookingCursor.of(second.get(0)), 0, 1);
+
+        assertEquals(later.getId(), first.get(0).getId());
+        assertEquals(booking.getId(), second.get(0).getId());
+        assertTrue(third.isEmpty());
+    }
+
+    @Test
+    void findBookings_whenBookerCurrentWithCursor_thenAscending() {
+        booking.setLifecycle(BookingLifecycle.CURRENT);
+        bookingRepository.save(booking);
+
+        List<Booking> list = bookingRepository.findBookings(BookingRole.BOOKER, user.getId(), BookingState.CURRENT,
+                new BookingCursor(booking.getStart().minusDays(1), 0L), 0, 10);
 
         assertTrue(list.size() == 1);
     }
 
     @Test
-    void findByItemOwnerIdAndStartAfterAndEndAfterOrderByStartDesc() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> list = bookingRepository.findByItemOwnerIdAndStartAfterAndEndAfterOrderByStartDesc(user.getId(),
-                LocalDateTime.of(2023, 5, 25, 2, 15),
-                LocalDateTime.of(2023, 5, 25, 3, 15), pageable);
+    void updateLifecycle_whenPast_thenKeepPast() {
+        int updated = bookingRepository.updateLifecycle(List.of(booking.getId()), BookingLifecycle.CURRENT);
 
-        assertTrue(list.size() == 1);
+        assertEquals(0, updated);
     }
 
     @Test
-    void findByItemOwnerIdAndStartBeforeAndEndBeforeOrderByStartDesc() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> list = bookingRepository.findByItemOwnerIdAndStartBeforeAndEndBeforeOrderByStartDesc(user.getId(),
-                LocalDateTime.of(2025, 5, 25, 2, 15),
-                LocalDateTime.of(2025, 5, 25, 3, 15), pageable);
+    void findIdsOfStartedAndEnded() {
+        booking.setLifecycle(BookingLifecycle.FUTURE);
+        bookingRepository.saveAndFlush(booking);
+        LocalDateTime started = LocalDateTime.of(2024, 5, 25, 2, 15);
+        LocalDateTime ended = LocalDateTime.of(2025, 5, 25, 2, 15);
+
+        assertEquals(List.of(booking.getId()), bookingRepository.findIdsOfStarted(started, PageRequest.of(0, 10)));
+        assertEquals(1, bookingRepository.updateLifecycle(List.of(booking.getId()), BookingLifecycle.CURRENT));
+        assertTrue(bookingRepository.findIdsOfStarted(started, PageRequest.of(0, 10)).isEmpty());
+
+        assertEquals(List.of(booking.getId()), bookingRepository.findIdsOfEnded(ended, PageRequest.of(0, 10)));
+        assertEquals(1, bookingRepository.updateLifecycle(List.of(booking.getId()), BookingLifecycle.PAST));
+        assertTrue(bookingRepository.findIdsOfEnded(ended, PageRequest.of(0, 10)).isEmpty());
+    }
 
-        assertTrue(list.size() == 1);
+    @Test
+    void findSlotsByEndAfter() {
+        assertTrue(bookingRepository.findSlotsByEndAfter(LocalDateTime.of(2024, 5, 25, 2, 15)).size() == 1);
+        assertTrue(bookingRepository.findSlotsByEndAfter(LocalDateTime.of(2025, 5, 25, 2, 15)).isEmpty());
+    }
+
+    @Test
+    void expireWaitingBookings() {
+        LocalDateTime now = LocalDateTime.of(2024, 5, 25, 2, 15);
+        List<BookingSlot> slots = bookingRepository.findSlotsByStatusAndStartBefore(BookingStatus.WAITING, now,
+                PageRequest.of(0, 10));
+        List<Long> ids = List.of(slots.get(0).getId());
+
+        assertEquals(booking.getStart(), bookingRepository.findMinStartByStatusAndStartBefore(BookingStatus.WAITING, now).get());
+        assertEquals(ids, bookingRepository.findIdsByIdInAndStatus(ids, BookingStatus.WAITING));
+        assertEquals(1, bookingRepository.updateStatus(ids, BookingStatus.WAITING, BookingStatus.EXPIRED));
+        assertTrue(bookingRepository.findIdsByIdInAndStatus(ids, BookingStatus.WAITING).isEmpty());
     }
 
     @Test
-    void findByItemOwnerIdAndStatusOrderByStartDesc() {
-        Pageable pageable = PageRequest.of(0, 10);
-        List<Booking> list = bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(user.getId(), BookingStatus.WAITING, pageable);
+    void findApprovalViewsByIdIn() {
+        List<BookingApprovalView> views = bookingRepository.findApprovalViewsByIdIn(List.of(booking.getId(), booking.getId() + 1));
 
-        assertTrue(list.size() == 1);
+        assertEquals(1, views.size());
+        assertEquals(user.getId(), views.get(0).getOwnerId());
+        assertEquals(item.getId(), views.get(0).getItemId().longValue());
+        assertEquals(BookingStatus.WAITING, views.get(0).getStatus());
+    }
+
+    @Test
+    void findBookings_whenArchived_thenOnlyPastReadsArchive() {
+        bookingRepository.flush();
+        List<Long> ids = List.of(booking.getId());
+
+        assertEquals(1, bookingArchiveRepository.copyFromBookings(ids, LocalDateTime.now()));
+        assertEquals(1, bookingRepository.deleteByIdIn(ids));
+
+        List<Booking> past = findBookings(BookingRole.OWNER, BookingState.PAST);
+        assertEquals(1, past.size());
+        assertEquals(booking.getId(), past.get(0).getId());
+        assertEquals(BookingLifecycle.PAST, past.get(0).getLifecycle());
+        assertTrue(findBookings(BookingRole.BOOKER, BookingState.ALL).isEmpty());
+        assertTrue(bookingArchiveRepository.existsByBookerIdAndItemIdAndEndBefore(user.getId(), item.getId(),
+                LocalDateTime.now()));
+    }
+
+    @Test
+    void copyFromBookings_thenKeepSecondLevelCache() {
+        bookingRepository.flush();
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        entityManager.clear();
+        userRepository.findById(user.getId());
+
+        bookingArchiveRepository.copyFromBookings(List.of(booking.getId()), LocalDateTime.now());
+        entityManager.clear();
+        long hits = statistics.getSecondLevelCacheHitCount();
+        userRepository.findById(user.getId());
+
+        assertEquals(hits + 1, statistics.getSecondLevelCacheHitCount());
+    }
+
+    @Test
+    void findBookings_PAST_thenMergeHotAndArchive() {
+        Booking archived = bookingRepository.save(Booking.builder()
+                .start(LocalDateTime.of(2023, 1, 25, 2, 15))
+                .end(LocalDateTime.of(2023, 2, 25, 2, 15))
+                .status(BookingStatus.APPROVED)
+                .booker(user)
+                .item(item)
+                .build());
+        bookingRepository.flush();
+        bookingArchiveRepository.copyFromBookings(List.of(archived.getId()), LocalDateTime.now());
+        bookingRepository.deleteByIdIn(List.of(archived.getId()));
+
+        List<Booking> past = bookingRepository.findBookings(BookingRole.BOOKER, user.getId(), BookingState.PAST, null, 0, 10);
+        List<Booking> second = bookingRepository.findBookings(BookingRole.BOOKER, user.getId(), BookingState.PAST, null, 1, 1);
+        List<Booking> afterCursor = bookingRepository.findBookings(BookingRole.BOOKER, user.getId(), BookingState.PAST,
+                BookingCursor.of(booking), 0, 10);
+
+        assertEquals(List.of(booking.getId(), archived.getId()), List.of(past.get(0).getId(), past.get(1).getId()));
+        assertEquals(archived.getId(), second.get(0).getId());
+        assertEquals(archived.getId(), afterCursor.get(0).getId());
+        assertEquals(1, afterCursor.size());
+    }
+
+    @Test
+    void findSlotsByEndBefore() {
+        assertEquals(1, bookingRepository.findSlotsByEndBefore(LocalDateTime.of(2025, 1, 1, 0, 0),
+                PageRequest.of(0, 10)).size());
+        assertTrue(bookingRepository.findSlotsByEndBefore(LocalDateTime.of(2024, 1, 1, 0, 0),
+                PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void findLastAndNextApproved_thenOneOfEachPerItem() {
+        approved(LocalDateTime.of(2024, 3, 1, 0, 0));
+        Booking archived = approved(LocalDateTime.of(2024, 5, 1, 0, 0));
+        Booking next = approved(LocalDateTime.of(2024, 7, 1, 0, 0));
+        approved(LocalDateTime.of(2024, 9, 1, 0, 0));
+        bookingArchiveRepository.copyFromBookings(List.of(archived.getId()), LocalDateTime.now());
+        bookingRepository.deleteByIdIn(List.of(archived.getId()));
+
+        List<AdjacentBooking> result = bookingRepository.findLastAndNextApproved(List.of(item.getId()),
+                LocalDateTime.of(2024, 6, 1, 0, 0));
+
+        assertEquals(2, result.size());
+        AdjacentBooking last = result.stream().filter(booking -> !booking.isNext()).findFirst().orElseThrow();
+        AdjacentBooking first = result.stream().filter(AdjacentBooking::isNext).findFirst().orElseThrow();
+        assertEquals(archived.getId(), last.getId());
+        assertEquals(next.getId(), first.getId());
+        assertEquals(item.getId(), first.getItemId());
+        assertEquals(user.getId(), first.getBookerId());
+        assertEquals(next.getStart(), first.getStart());
+        assertTrue(bookingRepository.findLastAndNextApproved(List.of(item.getId() + 1),
+                LocalDateTime.of(2024, 6, 1, 0, 0)).isEmpty());
+    }
+
+    private Booking approved(LocalDateTime start) {
+        return bookingRepository.save(Booking.builder()
+                .start(start)
+                .end(start.plusDays(1))
+                .status(BookingStatus.APPROVED)
+                .booker(user)
+                .item(item)
+                .build());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,96 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.model.BookingSeries;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.SeriesFrequency;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class BookingSeriesRepositoryTest {
+    @Autowired
+    private BookingSeriesRepository bookingSeriesRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 5, 10, 0);
+    private User owner;
+    private User booker;
+    private Item item = new Item();
+    private BookingSeries series;
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.com").build());
+        booker = userRepository.save(User.builder().name("booker").email("booker@mail.com").build());
+        item.setName("name");
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(owner);
+        itemRepository.save(item);
+
+        series = bookingSeriesRepository.save(BookingSeries.builder()
+                .item(item)
+                .booker(booker)
+                .start(start)
+                .end(start.plusDays(2))
+                .frequency(SeriesFrequency.WEEKLY)
+                .interval(1)
+                .until(start.plusWeeks(9))
+                .status(BookingStatus.WAITING)
+                .build());
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingSeriesRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void save_thenDerivedFieldsAreFilled() {
+        BookingSeries saved = bookingSeriesRepository.findById(series.getId()).get();
+
+        assertEquals(owner.getId(), saved.getOwnerId());
+        assertEquals(start.plusWeeks(9).plusDays(2), saved.getLastEnd());
+    }
+
+    @Test
+    void findBlocking() {
+        List<BookingStatus> statuses = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+        assertEquals(1, bookingSeriesRepository.findBlocking(List.of(item.getId()), statuses, start).size());
+        assertTrue(bookingSeriesRepository.findBlocking(List.of(item.getId()), statuses, start.plusWeeks(10)).isEmpty());
+        assertTrue(bookingSeriesRepository.findBlocking(List.of(item.getId()), List.of(BookingStatus.APPROVED), start)
+                .isEmpty());
+    }
+
+    @Test
+    void findInWindow() {
+        assertEquals(1, bookingSeriesRepository.findByBookerInWindow(booker.getId(), start.plusWeeks(3),
+                start.plusWeeks(4)).size());
+        assertEquals(1, bookingSeriesRepository.findByOwnerInWindow(owner.getId(), start.minusWeeks(1),
+                start.plusDays(1)).size());
+        assertTrue(bookingSeriesRepository.findByOwnerInWindow(booker.getId(), start, start.plusWeeks(1)).isEmpty());
+        assertTrue(bookingSeriesRepository.findByBookerInWindow(booker.getId(), start.plusWeeks(10),
+                start.plusWeeks(11)).isEmpty());
+    }
+}
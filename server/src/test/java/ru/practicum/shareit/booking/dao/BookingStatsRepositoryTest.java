@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.booking.model.BookingStats;
+import ru.practicum.shareit.booking.model.BookingStatsId;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class BookingStatsRepositoryTest {
+    @Autowired
+    private BookingStatsRepository bookingStatsRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    private User owner;
+    private final Item item = new Item();
+    private final Item otherItem = new Item();
+
+    @BeforeEach
+    void setUp() {
+        owner = userRepository.save(User.builder().name("owner").email("owner@mail.com").build());
+        User other = userRepository.save(User.builder().name("other").email("other@mail.com").build());
+        save(item, owner);
+        save(otherItem, other);
+
+        bookingStatsRepository.save(stats(item, LocalDate.of(2030, 1, 1), 2));
+        bookingStatsRepository.save(stats(item, LocalDate.of(2030, 3, 1), 1));
+        bookingStatsRepository.save(stats(otherItem, LocalDate.of(2030, 1, 1), 5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingStatsRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findByOwnerIdAndMonthBetween_thenOnlyOwnerItemsInRange() {
+        List<BookingStats> rows = bookingStatsRepository.findByOwnerIdAndMonthBetween(owner.getId(),
+                LocalDate.of(2030, 1, 1), LocalDate.of(2030, 2, 1));
+
+        assertEquals(1, rows.size());
+        assertEquals(item.getId(), rows.get(0).getId().getItemId().longValue());
+        assertEquals(2, rows.get(0).getApproved());
+    }
+
+    private void save(Item target, User user) {
+        target.setName("name");
+        target.setDescription("description");
+        target.setAvailable(true);
+        target.setOwner(user);
+        itemRepository.save(target);
+    }
+
+    private BookingStats stats(Item target, LocalDate month, long approved) {
+        BookingStats stats = new BookingStats(new BookingStatsId(target.getId(), month));
+        stats.setApproved(approved);
+        return stats;
+    }
+}
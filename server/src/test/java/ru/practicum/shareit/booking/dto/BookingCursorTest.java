@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking.dto;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.exceptions.IncorrectParamException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BookingCursorTest {
+
+    @Test
+    void encodeAndDecode() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.of(2024, 5, 25, 2, 15), 7L);
+
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void decode_whenEmpty_thenNull() {
+        assertNull(BookingCursor.decode(""));
+        assertNull(BookingCursor.decode(null));
+    }
+
+    @Test
+    void decode_whenGarbage_thenThrow() {
+        Exception exception = assertThrows(IncorrectParamException.class, () -> BookingCursor.decode("not-a-cursor"));
+
+        assertEquals("Некорректный курсор: not-a-cursor", exception.getMessage());
+    }
+}
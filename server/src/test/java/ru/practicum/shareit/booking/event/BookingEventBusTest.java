@@ -0,0 +1,63 @@
+package ru.practicum.shareit.booking.event;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class BookingEventBusTest {
+    private final List<Long> received = Collections.synchronizedList(new ArrayList<>());
+    private BookingEventBus bus;
+
+    @AfterEach
+    void tearDown() {
+        bus.shutdown();
+    }
+
+    @Test
+    void deliver_thenKeepOrderOfItemEvents() {
+        bus = bus(event -> received.add(event.getBookingId()));
+
+        BookingEventBus.Delivery delivery = bus.deliver(1L, List.of(event(1L), event(2L), event(3L))).join();
+
+        assertEquals(3, delivery.getDelivered());
+        assertNull(delivery.getError());
+        assertEquals(List.of(1L, 2L, 3L), received);
+    }
+
+    @Test
+    void deliver_whenListenerFails_thenStopAtFailedEvent() {
+        bus = bus(event -> {
+            if (event.getBookingId() == 2L) {
+                throw new IllegalStateException("boom");
+            }
+            received.add(event.getBookingId());
+        });
+
+        BookingEventBus.Delivery delivery = bus.deliver(1L, List.of(event(1L), event(2L), event(3L))).join();
+
+        assertEquals(1, delivery.getDelivered());
+        assertEquals("java.lang.IllegalStateException: boom", delivery.getError());
+        assertEquals(List.of(1L), received);
+    }
+
+    @SuppressWarnings("unchecked")
+    private BookingEventBus bus(BookingEventListener listener) {
+        ObjectProvider<BookingEventListener> listeners = Mockito.mock(ObjectProvider.class);
+        Mockito.when(listeners.orderedStream()).thenReturn(Stream.of(listener));
+        return new BookingEventBus(listeners, 2);
+    }
+
+    private BookingEvent event(Long bookingId) {
+        return new BookingEvent(bookingId, 1L, BookingEventType.CREATED, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.booking.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurrenceTest {
+    private final LocalDateTime saturday = LocalDateTime.of(2030, 1, 5, 10, 0);
+    private final Recurrence weekends = new Recurrence(saturday, saturday.plusDays(2), Duration.ofDays(7),
+            saturday.plusWeeks(3));
+
+    @Test
+    void size_thenCountOccurrencesUntilInclusive() {
+        assertEquals(4, weekends.size());
+        assertEquals(saturday.plusWeeks(3).plusDays(2), weekends.lastEnd());
+    }
+
+    @Test
+    void overlaps_whenIntervalHitsOccurrence_thenTrue() {
+        assertTrue(weekends.overlaps(saturday.plusWeeks(2).plusDays(1), saturday.plusWeeks(2).plusDays(3)));
+        assertTrue(weekends.overlaps(saturday.minusDays(1), saturday.plusHours(1)));
+    }
+
+    @Test
+    void overlaps_whenIntervalBetweenOccurrences_thenFalse() {
+        assertFalse(weekends.overlaps(saturday.plusDays(2), saturday.plusDays(7)));
+        assertFalse(weekends.overlaps(saturday.plusWeeks(4), saturday.plusWeeks(5)));
+        assertFalse(weekends.overlaps(saturday.minusDays(3), saturday));
+    }
+
+    @Test
+    void overlaps_whenSeriesInterleave_thenCheckEveryOccurrence() {
+        Recurrence midweek = new Recurrence(saturday.plusDays(3), saturday.plusDays(4), Duration.ofDays(7),
+                saturday.plusWeeks(10));
+        Recurrence monthlyOnSunday = new Recurrence(saturday.plusDays(22), saturday.plusDays(23), Duration.ofDays(28),
+                saturday.plusWeeks(10));
+
+        assertFalse(weekends.overlaps(midweek));
+        assertTrue(weekends.overlaps(monthlyOnSunday));
+        assertTrue(monthlyOnSunday.overlaps(weekends));
+    }
+
+    @Test
+    void between_thenReturnOnlyOccurrencesInWindow() {
+        List<Recurrence.Occurrence> occurrences = weekends.between(saturday.plusDays(8), saturday.plusWeeks(3));
+
+        assertEquals(2, occurrences.size());
+        assertEquals(saturday.plusWeeks(1), occurrences.get(0).getStart());
+        assertEquals(saturday.plusWeeks(2).plusDays(2), occurrences.get(1).getEnd());
+    }
+}
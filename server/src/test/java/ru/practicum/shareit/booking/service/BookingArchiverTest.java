@@ -0,0 +1,66 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSlot;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+class BookingArchiverTest {
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final BookingArchiveRepository bookingArchiveRepository = Mockito.mock(BookingArchiveRepository.class);
+    private final ItemLockStripes itemLockStripes = Mockito.mock(ItemLockStripes.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void archive_thenCopyAndDeleteInBatches() {
+        BookingArchiver archiver = archiver(2);
+        Mockito.when(bookingRepository.findSlotsByEndBefore(any(), any()))
+                .thenReturn(List.of(slot(1L, 10L), slot(2L, 20L)))
+                .thenReturn(List.of(slot(3L, 10L)));
+
+        archiver.archive();
+
+        Mockito.verify(bookingArchiveRepository).copyFromBookings(Mockito.eq(List.of(1L, 2L)), any());
+        Mockito.verify(bookingRepository).deleteByIdIn(List.of(1L, 2L));
+        Mockito.verify(bookingRepository).deleteByIdIn(List.of(3L));
+        Mockito.verify(itemLockStripes).lockAllUntilCompletion(List.of(10L, 20L));
+        assertEquals(3.0, meterRegistry.get("shareit.bookings.archived").counter().count());
+    }
+
+    @Test
+    void archive_thenUseRetentionAsCutoff() {
+        BookingArchiver archiver = archiver(10);
+        LocalDateTime before = LocalDateTime.now().minusDays(30);
+
+        archiver.archive();
+
+        Mockito.verify(bookingRepository).findSlotsByEndBefore(Mockito.argThat(cutoff ->
+                !cutoff.isBefore(before) && cutoff.isBefore(LocalDateTime.now().minusDays(29))), any());
+        Mockito.verify(bookingArchiveRepository, Mockito.never()).copyFromBookings(any(), any());
+        assertTrue(meterRegistry.get("shareit.bookings.archived").counter().count() == 0);
+    }
+
+    private BookingArchiver archiver(int batchSize) {
+        return new BookingArchiver(bookingRepository, bookingArchiveRepository, itemLockStripes,
+                Mockito.mock(PlatformTransactionManager.class), meterRegistry, Duration.ofDays(30), batchSize);
+    }
+
+    private BookingSlot slot(Long id, Long itemId) {
+        BookingSlot slot = Mockito.mock(BookingSlot.class);
+        Mockito.when(slot.getId()).thenReturn(id);
+        Mockito.when(slot.getItemId()).thenReturn(itemId);
+        return slot;
+    }
+}
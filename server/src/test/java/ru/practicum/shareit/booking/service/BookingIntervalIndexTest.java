@@ -0,0 +1,136 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.dao.BookingSlot;
+import ru.practicum.shareit.booking.model.Recurrence;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+
+class BookingIntervalIndexTest {
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final BookingSeriesRepository bookingSeriesRepository = Mockito.mock(BookingSeriesRepository.class);
+    private final BookingIntervalIndex index = new BookingIntervalIndex(bookingRepository, bookingSeriesRepository);
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        base = LocalDateTime.now().plusDays(1).withNano(0);
+        index.add(1L, 10L, base, base.plusHours(2));
+        index.add(1L, 11L, base.plusHours(4), base.plusHours(6));
+    }
+
+    @Test
+    void isFree_whenGapBetweenSlots_thenTrue() {
+        assertTrue(index.isFree(1L, base.plusHours(2), base.plusHours(4)));
+    }
+
+    @Test
+    void isFree_whenOverlapsSlot_thenFalse() {
+        assertFalse(index.isFree(1L, base.plusHours(1), base.plusHours(3)));
+        assertFalse(index.isFree(1L, base.plusHours(3), base.plusHours(5)));
+        assertFalse(index.isFree(1L, base.minusHours(1), base.plusHours(7)));
+    }
+
+    @Test
+    void isFree_whenOtherItem_thenTrue() {
+        assertTrue(index.isFree(2L, base, base.plusHours(6)));
+    }
+
+    @Test
+    void remove() {
+        index.remove(1L, 11L, base.plusHours(4));
+
+        assertTrue(index.isFree(1L, base.plusHours(3), base.plusHours(5)));
+    }
+
+    @Test
+    void remove_whenOtherBooking_thenKeepSlot() {
+        index.remove(1L, 12L, base.plusHours(4));
+
+        assertFalse(index.isFree(1L, base.plusHours(3), base.plusHours(5)));
+    }
+
+    @Test
+    void rebuild() {
+        BookingSlot slot = slot(20L, base, base.plusDays(1));
+        Mockito.when(bookingRepository.findSlotsByStatusInAndEndAfter(any(), any())).thenReturn(List.of(slot));
+
+        index.rebuild();
+
+        assertTrue(index.isFree(1L, base, base.plusHours(6)));
+        assertFalse(index.isFree(3L, base.plusHours(1), base.plusHours(2)));
+    }
+
+    @Test
+    void rebuild_whenOverlappingRows_thenKeepEveryBooking() {
+        BookingSlot longSlot = slot(20L, base, base.plusHours(10));
+        BookingSlot shortSlot = slot(21L, base.plusHours(1), base.plusHours(2));
+        BookingSlot sameStart = slot(22L, base.plusHours(1), base.plusHours(3));
+        Mockito.when(bookingRepository.findSlotsByStatusInAndEndAfter(any(), any()))
+                .thenReturn(List.of(longSlot, shortSlot, sameStart));
+
+        index.rebuild();
+
+        assertFalse(index.isFree(3L, base.plusHours(4), base.plusHours(5)));
+        assertEquals(3, index.busyBetween(3L, base.plusHours(1), base.plusHours(2)).size());
+
+        index.remove(3L, 20L, base);
+        index.remove(3L, 22L, base.plusHours(1));
+
+        assertTrue(index.isFree(3L, base.plusHours(2), base.plusHours(5)));
+        assertFalse(index.isFree(3L, base.plusMinutes(90), base.plusHours(4)));
+    }
+
+    @Test
+    void busyBetween_whenSlotsAndSeries_thenSortedByStart() {
+        index.addSeries(1L, 30L, new Recurrence(base.plusHours(3), base.plusHours(4), Duration.ofDays(1),
+                base.plusDays(2)));
+
+        List<Recurrence.Occurrence> busy = index.busyBetween(1L, base.plusHours(1), base.plusDays(1));
+
+        assertEquals(3, busy.size());
+        assertEquals(base, busy.get(0).getStart());
+        assertEquals(base.plusHours(3), busy.get(1).getStart());
+        assertEquals(base.plusHours(4), busy.get(2).getStart());
+    }
+
+    @Test
+    void version_whenItemChanged_thenGrows() {
+        long version = index.version(1L);
+        long otherVersion = index.version(2L);
+
+        index.remove(1L, 10L, base);
+
+        assertNotEquals(version, index.version(1L));
+        assertEquals(otherVersion, index.version(2L));
+    }
+
+    @Test
+    void removeSeries() {
+        index.addSeries(2L, 30L, new Recurrence(base, base.plusHours(1), Duration.ofDays(1), base.plusDays(2)));
+        index.removeSeries(2L, 30L);
+
+        assertTrue(index.busyBetween(2L, base, base.plusDays(3)).isEmpty());
+    }
+
+    private BookingSlot slot(Long id, LocalDateTime start, LocalDateTime end) {
+        BookingSlot slot = Mockito.mock(BookingSlot.class);
+        Mockito.when(slot.getId()).thenReturn(id);
+        Mockito.when(slot.getItemId()).thenReturn(3L);
+        Mockito.when(slot.getStartDate()).thenReturn(start);
+        Mockito.when(slot.getEndDate()).thenReturn(end);
+        return slot;
+    }
+}
@@ -0,0 +1,123 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSlot;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingLifecycle;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+
+class BookingLifecycleSchedulerTest {
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final TestClock clock = new TestClock();
+    private final BookingLifecycleScheduler scheduler = new BookingLifecycleScheduler(bookingRepository, 10, 64, 2, clock);
+
+    @Test
+    void catchUp_thenUpdateInBatchesAndScheduleUnfinished() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        BookingSlot future = slot(1L, now.plusDays(1), now.plusDays(2));
+        BookingSlot current = slot(2L, now.minusDays(1), now.plusDays(1));
+        Mockito.when(bookingRepository.findIdsOfEnded(eq(now), any())).thenReturn(List.of(3L, 4L), List.of(5L));
+        Mockito.when(bookingRepository.findIdsOfStarted(eq(now), any())).thenReturn(List.of(2L));
+        Mockito.when(bookingRepository.updateLifecycle(anyList(), any()))
+                .thenAnswer(invocation -> invocation.<Collection<?>>getArgument(0).size());
+        Mockito.when(bookingRepository.findSlotsByEndAfter(now)).thenReturn(List.of(future, current));
+
+        scheduler.catchUp();
+
+        Mockito.verify(bookingRepository).updateLifecycle(List.of(3L, 4L), BookingLifecycle.PAST);
+        Mockito.verify(bookingRepository).updateLifecycle(List.of(5L), BookingLifecycle.PAST);
+        Mockito.verify(bookingRepository).updateLifecycle(List.of(2L), BookingLifecycle.CURRENT);
+        assertEquals(3, scheduler.pending());
+    }
+
+    @Test
+    void tick_whenTransitionsFired_thenUpdateInBatches() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        for (long id = 1; id <= 3; id++) {
+            scheduler.schedule(booking(id, now.minusSeconds(1), now.plusDays(1), BookingLifecycle.FUTURE));
+        }
+
+        clock.advance(Duration.ofMillis(30));
+        scheduler.tick();
+
+        Mockito.verify(bookingRepository).updateLifecycle(List.of(1L, 2L), BookingLifecycle.CURRENT);
+        Mockito.verify(bookingRepository).updateLifecycle(List.of(3L), BookingLifecycle.CURRENT);
+        Mockito.verify(bookingRepository, Mockito.never()).updateLifecycle(anyList(), eq(BookingLifecycle.PAST));
+        assertEquals(3, scheduler.pending());
+    }
+
+    @Test
+    void tick_whenUpdateFails_thenRetryOnNextTick() {
+        LocalDateTime now = LocalDateTime.now(clock);
+        scheduler.schedule(booking(1L, now.minusDays(1), now.minusSeconds(1), BookingLifecycle.CURRENT));
+        Mockito.when(bookingRepository.updateLifecycle(anyList(), any()))
+                .thenThrow(new RuntimeException("db"))
+                .thenReturn(1);
+
+        clock.advance(Duration.ofMillis(30));
+        scheduler.tick();
+        clock.advance(Duration.ofMillis(30));
+        scheduler.tick();
+
+        Mockito.verify(bookingRepository, Mockito.times(2)).updateLifecycle(List.of(1L), BookingLifecycle.PAST);
+        assertEquals(0, scheduler.pending());
+    }
+
+    @Test
+    void schedule_whenPast_thenIgnore() {
+        LocalDateTime now = LocalDateTime.now(clock);
+
+        scheduler.schedule(booking(1L, now.minusDays(2), now.minusDays(1), BookingLifecycle.PAST));
+
+        assertEquals(0, scheduler.pending());
+    }
+
+    private Booking booking(Long id, LocalDateTime start, LocalDateTime end, BookingLifecycle lifecycle) {
+        return Booking.builder().id(id).start(start).end(end).lifecycle(lifecycle).build();
+    }
+
+    private BookingSlot slot(Long id, LocalDateTime start, LocalDateTime end) {
+        BookingSlot slot = Mockito.mock(BookingSlot.class);
+        Mockito.when(slot.getId()).thenReturn(id);
+        Mockito.when(slot.getStartDate()).thenReturn(start);
+        Mockito.when(slot.getEndDate()).thenReturn(end);
+        return slot;
+    }
+
+    private static final class TestClock extends Clock {
+        private Instant instant = Instant.parse("2030-01-01T00:00:00Z");
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneId.systemDefault();
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
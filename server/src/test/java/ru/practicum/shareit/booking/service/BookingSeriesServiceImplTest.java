@@ -0,0 +1,206 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.dto.BookingOccurrenceDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesDto;
+import ru.practicum.shareit.booking.dto.BookingSeriesRequestDto;
+import ru.practicum.shareit.booking.model.BookingSeries;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.SeriesFrequency;
+import ru.practicum.shareit.exceptions.EntityNotFoundException;
+import ru.practicum.shareit.exceptions.IncorrectParamException;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+@SpringBootTest
+class BookingSeriesServiceImplTest {
+    @MockBean
+    private BookingSeriesRepository bookingSeriesRepository;
+    @MockBean
+    private UserRepository userRepository;
+    @MockBean
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private BookingSeriesServiceImpl bookingSeriesService;
+
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
+    User owner;
+    User booker;
+    Item item;
+    BookingSeriesRequestDto request;
+    LocalDateTime saturday;
+
+    @BeforeEach
+    void setUp() {
+        owner = User.builder().id(1L).build();
+        booker = User.builder().id(2L).build();
+        item = new Item();
+        item.setId(1L);
+        item.setAvailable(true);
+        item.setOwner(owner);
+
+        saturday = LocalDateTime.now().plusDays(1).withNano(0);
+        request = new BookingSeriesRequestDto();
+        request.setItemId(1L);
+        request.setStart(saturday);
+        request.setEnd(saturday.plusDays(2));
+        request.setFrequency(SeriesFrequency.WEEKLY);
+        request.setInterval(1);
+        request.setUntil(saturday.plusWeeks(51));
+
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(booker));
+        Mockito.when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        Mockito.when(bookingSeriesRepository.save(any(BookingSeries.class))).thenAnswer(invocation -> {
+            BookingSeries series = invocation.getArgument(0);
+            series.setId(1L);
+            return series;
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingIntervalIndex.rebuild();
+    }
+
+    @Test
+    void createSeries_thenStoreOneRow() {
+        BookingSeriesDto result = bookingSeriesService.createSeries(request, 2L);
+
+        assertEquals(1L, result.getItemId());
+        assertEquals(2L, result.getBookerId());
+        assertEquals(BookingStatus.WAITING, result.getStatus());
+        Mockito.verify(bookingSeriesRepository).save(Mockito.<BookingSeries>argThat(series ->
+                series.getLastEnd().equals(saturday.plusWeeks(51).plusDays(2))));
+    }
+
+    @Test
+    void createSeries_whenBookingHitsOccurrence_thenThrow() {
+        bookingIntervalIndex.add(1L, 10L, saturday.plusWeeks(30).plusDays(1), saturday.plusWeeks(30).plusDays(3));
+
+        assertThrows(IncorrectParamException.class, () -> bookingSeriesService.createSeries(request, 2L));
+    }
+
+    @Test
+    void createSeries_whenBookingBetweenOccurrences_thenCreate() {
+        bookingIntervalIndex.add(1L, 10L, saturday.plusWeeks(30).plusDays(2), saturday.plusWeeks(30).plusDays(7));
+
+        assertEquals(1L, bookingSeriesService.createSeries(request, 2L).getId());
+    }
+
+    @Test
+    void createSeries_whenOtherSeriesOverlaps_thenThrow() {
+        BookingSeries other = series(saturday.plusWeeks(8).plusDays(1), 4);
+        Mockito.when(bookingSeriesRepository.findBlocking(anyCollection(), any(), any())).thenReturn(List.of(other));
+
+        Exception exception = assertThrows(IncorrectParamException.class,
+                () -> bookingSeriesService.createSeries(request, 2L));
+
+        assertEquals("Предмет с id 1 уже забронирован другой серией", exception.getMessage());
+    }
+
+    @Test
+    void createSeries_whenOccurrencesOverlapEachOther_thenThrow() {
+        request.setFrequency(SeriesFrequency.DAILY);
+
+        assertThrows(IncorrectParamException.class, () -> bookingSeriesService.createSeries(request, 2L));
+    }
+
+    @Test
+    void createSeries_whenTooManyOccurrences_thenThrow() {
+        request.setEnd(saturday.plusHours(1));
+        request.setFrequency(SeriesFrequency.DAILY);
+        request.setUntil(saturday.plusYears(5));
+
+        assertThrows(IncorrectParamException.class, () -> bookingSeriesService.createSeries(request, 2L));
+    }
+
+    @Test
+    void createSeries_whenOwner_thenThrow() {
+        assertThrows(EntityNotFoundException.class, () -> bookingSeriesService.createSeries(request, 1L));
+    }
+
+    @Test
+    void approveSeries() {
+        BookingSeries series = series(saturday, 1);
+        Mockito.when(bookingSeriesRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
+        Mockito.when(bookingSeriesRepository.findById(1L)).thenReturn(Optional.of(series));
+
+        assertEquals(BookingStatus.APPROVED, bookingSeriesService.approveSeries(1L, 1L, true).getStatus());
+        assertThrows(IncorrectParamException.class, () -> bookingSeriesService.approveSeries(1L, 1L, false));
+    }
+
+    @Test
+    void approveSeries_whenExpired_thenThrow() {
+        BookingSeries series = series(saturday, 1);
+        series.setStatus(BookingStatus.EXPIRED);
+        Mockito.when(bookingSeriesRepository.findItemIdById(1L)).thenReturn(Optional.of(1L));
+        Mockito.when(bookingSeriesRepository.findById(1L)).thenReturn(Optional.of(series));
+
+        Exception exception = assertThrows(IncorrectParamException.class,
+                () -> bookingSeriesService.approveSeries(1L, 1L, true));
+
+        assertEquals("Серия 1 просрочена", exception.getMessage());
+    }
+
+    @Test
+    void approveSeries_whenNotFound_thenThrow() {
+        assertThrows(EntityNotFoundException.class, () -> bookingSeriesService.approveSeries(99L, 1L, true));
+    }
+
+    @Test
+    void getOccurrencesByUserId_thenExpandOnlyWindow() {
+        BookingSeries series = series(saturday, 1);
+        Mockito.when(bookingSeriesRepository.findByBookerInWindow(eq(2L), any(), any())).thenReturn(List.of(series));
+
+        List<BookingOccurrenceDto> occurrences = bookingSeriesService.getOccurrencesByUserId(2L,
+                saturday.plusWeeks(2), saturday.plusWeeks(4));
+
+        assertEquals(2, occurrences.size());
+        assertEquals(saturday.plusWeeks(2), occurrences.get(0).getStart());
+        assertEquals(1L, occurrences.get(1).getSeriesId());
+    }
+
+    @Test
+    void getOccurrences_whenWindowTooLong_thenThrow() {
+        assertThrows(IncorrectParamException.class,
+                () -> bookingSeriesService.getOccurrencesForUserItems(1L, saturday, saturday.plusYears(2)));
+    }
+
+    private BookingSeries series(LocalDateTime start, int interval) {
+        return BookingSeries.builder()
+                .id(1L)
+                .item(item)
+                .booker(booker)
+                .ownerId(owner.getId())
+                .start(start)
+                .end(start.plusDays(1))
+                .frequency(SeriesFrequency.WEEKLY)
+                .interval(interval)
+                .until(start.plusWeeks(20))
+                .status(BookingStatus.WAITING)
+                .build();
+    }
+}
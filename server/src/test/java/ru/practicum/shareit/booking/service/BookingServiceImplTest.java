@@ -1,5 +1,6 @@
 package ru.practicum.shareit.booking.service;
 
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -7,27 +8,45 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.PageImpl;
+import ru.practicum.shareit.booking.dao.BookingApprovalView;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
 import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.dto.BookingApprovalDto;
+import ru.practicum.shareit.booking.dto.BookingApprovalResultDto;
+import ru.practicum.shareit.booking.dto.BookingCursor;
 import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPage;
 import ru.practicum.shareit.booking.dto.BookingRequestDto;
+import ru.practicum.shareit.booking.dto.MultiBookingRequestDto;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.ArchivedBooking;
 import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingRole;
+import ru.practicum.shareit.booking.model.BookingSeries;
+import ru.practicum.shareit.booking.model.BookingState;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.SeriesFrequency;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.exceptions.IncorrectParamException;
 import ru.practicum.shareit.exceptions.ValueIsNotEnumException;
 import ru.practicum.shareit.item.dao.ItemRepository;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxPublisher;
 import ru.practicum.shareit.user.dao.UserRepository;
 import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 
 @SpringBootTest
 //@ContextConfiguration(classes = {BookingServiceImpl.class, BookingMapperImpl.class})
@@ -40,9 +59,24 @@ class BookingServiceImplTest {
     @MockBean
     private ItemRepository itemRepository;
 
+    @MockBean
+    private BookingSeriesRepository bookingSeriesRepository;
+
+    @MockBean
+    private OutboxPublisher outboxPublisher;
+
+    @MockBean
+    private BookingArchiveRepository bookingArchiveRepository;
+
+    @MockBean
+    private BookingStatsRecorder bookingStatsRecorder;
+
     @Autowired
     private BookingServiceImpl bookingService;
 
+    @Autowired
+    private BookingIntervalIndex bookingIntervalIndex;
+
     @SpyBean
     Booking booking;
     BookingDto bookingDto;
@@ -62,12 +96,23 @@ class BookingServiceImplTest {
         item.setAvailable(true);
         item.setOwner(user);
 
-        booking = Booking.builder().booker(user).item(item).build();
-
         bookingRequestDto = new BookingRequestDto();
         bookingRequestDto.setItemId(1L);
-        bookingRequestDto.setStart(LocalDateTime.of(2024, 5, 25, 2, 15));
-        bookingRequestDto.setEnd(LocalDateTime.of(2024, 6, 25, 2, 15));
+        bookingRequestDto.setStart(LocalDateTime.now().plusDays(1));
+        bookingRequestDto.setEnd(LocalDateTime.now().plusDays(30));
+
+        booking = Booking.builder()
+                .id(1L)
+                .start(bookingRequestDto.getStart())
+                .end(bookingRequestDto.getEnd())
+                .booker(user)
+                .item(item)
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        bookingIntervalIndex.rebuild();
     }
 
     @Test
@@ -79,6 +124,7 @@ class BookingServiceImplTest {
         BookingDto result = bookingService.createBooking(bookingRequestDto, 5L);
 
         assertEquals(bookingRequestDto.getItemId(), result.getItem().getId());
+        Mockito.verify(outboxPublisher).publish(BookingEventType.CREATED, 1L, 1L);
     }
 
     @Test
@@ -97,6 +143,28 @@ class BookingServiceImplTest {
         assertEquals("Предмет недоступен", exception.getMessage());
     }
 
+    @Test
+    void createBooking_whenSeriesOccurrenceOverlaps_thenThrow() {
+        LocalDateTime start = bookingRequestDto.getStart().minusWeeks(1).plusHours(1);
+        BookingSeries series = BookingSeries.builder()
+                .item(item)
+                .start(start)
+                .end(start.plusHours(2))
+                .frequency(SeriesFrequency.WEEKLY)
+                .interval(1)
+                .until(start.plusWeeks(10))
+                .status(BookingStatus.APPROVED)
+                .build();
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        Mockito.when(bookingSeriesRepository.findBlocking(any(), any(), any())).thenReturn(List.of(series));
+
+        Exception exception = assertThrows(IncorrectParamException.class,
+                () -> bookingService.createBooking(bookingRequestDto, 5L));
+
+        assertEquals("Предмет с id 1 уже забронирован на эти даты", exception.getMessage());
+    }
+
     @Test
     void createBooking_whenOwnerIsBooker_thenThrow() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
@@ -112,9 +180,103 @@ class BookingServiceImplTest {
         assertEquals("Предмет с id 1 не доступен для бронирования пользователю 1", exception.getMessage());
     }
 
+    @Test
+    void createBooking_whenSlotIsTaken_thenThrow() {
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        bookingIntervalIndex.add(1L, 99L, bookingRequestDto.getStart().minusDays(1), bookingRequestDto.getStart().plusDays(1));
+
+        Exception exception = assertThrows(
+                IncorrectParamException.class,
+                () -> {
+                    bookingService.createBooking(bookingRequestDto, 5L);
+                }
+        );
+
+        assertEquals("Предмет с id 1 уже забронирован на эти даты", exception.getMessage());
+        Mockito.verify(bookingRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    void createBookings() {
+        Item second = new Item();
+        second.setId(2L);
+        second.setAvailable(true);
+        second.setOwner(user);
+        Booking secondBooking = Booking.builder()
+                .id(2L)
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .booker(user)
+                .item(second)
+                .build();
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findAllWithOwnerByIdIn(any())).thenReturn(List.of(item, second));
+        Mockito.when(bookingRepository.saveAll(any())).thenReturn(List.of(booking, secondBooking));
+
+        List<BookingDto> result = bookingService.createBookings(multiBookingRequest(List.of(1L, 2L, 1L)), 5L);
+
+        assertEquals(2, result.size());
+        Mockito.verify(itemRepository, Mockito.times(1)).findAllWithOwnerByIdIn(Set.of(1L, 2L));
+        Mockito.verify(itemRepository, Mockito.never()).findById(anyLong());
+        Mockito.verify(bookingRepository, Mockito.times(1)).saveAll(any());
+    }
+
+    @Test
+    void createBookings_whenOneItemUnavailable_thenRejectAll() {
+        Item second = new Item();
+        second.setId(2L);
+        second.setAvailable(false);
+        second.setOwner(user);
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findAllWithOwnerByIdIn(any())).thenReturn(List.of(item, second));
+
+        Exception exception = assertThrows(
+                IncorrectParamException.class,
+                () -> {
+                    bookingService.createBookings(multiBookingRequest(List.of(1L, 2L)), 5L);
+                }
+        );
+
+        assertEquals("Предметы [2] недоступны", exception.getMessage());
+        Mockito.verify(bookingRepository, Mockito.never()).saveAll(any());
+    }
+
+    @Test
+    void createBookings_whenItemNotFound_thenThrow() {
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findAllWithOwnerByIdIn(any())).thenReturn(List.of(item));
+
+        Exception exception = assertThrows(
+                EntityNotFoundException.class,
+                () -> {
+                    bookingService.createBookings(multiBookingRequest(List.of(1L, 3L)), 5L);
+                }
+        );
+
+        assertEquals("Предметов с id [3] не найдено", exception.getMessage());
+    }
+
+    @Test
+    void createBookings_whenSlotIsTaken_thenRejectAll() {
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        Mockito.when(itemRepository.findAllWithOwnerByIdIn(any())).thenReturn(List.of(item));
+        bookingIntervalIndex.add(1L, 99L, bookingRequestDto.getStart().minusDays(1), bookingRequestDto.getStart().plusDays(1));
+
+        Exception exception = assertThrows(
+                IncorrectParamException.class,
+                () -> {
+                    bookingService.createBookings(multiBookingRequest(List.of(1L)), 5L);
+                }
+        );
+
+        assertEquals("Предметы [1] уже забронированы на эти даты", exception.getMessage());
+        Mockito.verify(bookingRepository, Mockito.never()).saveAll(any());
+    }
+
     @Test
     void createBooking_whenTimeIsIncorrect_thenThrow() {
-        bookingRequestDto.setEnd(LocalDateTime.of(2024, 4, 25, 2, 15));
+        bookingRequestDto.setEnd(bookingRequestDto.getStart().minusDays(1));
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         Mockito.when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
@@ -131,12 +293,15 @@ class BookingServiceImplTest {
     @Test
     void approveBooking() {
         booking.setStatus(BookingStatus.WAITING);
+        Mockito.when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(1L));
         Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
         Mockito.when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
         bookingService.approveBooking(1L, 1L, true);
 
         Mockito.verify(bookingRepository, Mockito.times(1)).save(any());
+        Mockito.verify(bookingStatsRecorder).record(Mockito.<BookingStatsRecorder.Change>argThat(change ->
+                change.getFrom() == BookingStatus.WAITING && change.getTo() == BookingStatus.APPROVED));
     }
 
     @Test
@@ -154,6 +319,7 @@ class BookingServiceImplTest {
     @Test
     void approveBookingReject() {
         booking.setStatus(BookingStatus.WAITING);
+        Mockito.when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(1L));
         Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
         Mockito.when(bookingRepository.save(any(Booking.class))).thenReturn(booking);
 
@@ -165,6 +331,7 @@ class BookingServiceImplTest {
     @Test
     void approveBooking_whenUserNotOwner_thenThrow() {
         booking.setStatus(BookingStatus.WAITING);
+        Mockito.when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(1L));
         Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         Exception exception = assertThrows(
@@ -182,6 +349,7 @@ class BookingServiceImplTest {
     @Test
     void approveBooking_whenStatusApproved_thenThrow() {
         booking.setStatus(BookingStatus.APPROVED);
+        Mockito.when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(1L));
         Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
 
         Exception exception = assertThrows(
@@ -196,6 +364,83 @@ class BookingServiceImplTest {
         Mockito.verify(bookingRepository, Mockito.never()).save(any());
     }
 
+    @Test
+    void approveBooking_whenStatusExpired_thenThrow() {
+        booking.setStatus(BookingStatus.EXPIRED);
+        Mockito.when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(1L));
+        Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        Exception exception = assertThrows(
+                IncorrectParamException.class,
+                () -> {
+                    bookingService.approveBooking(1L, 1L, true);
+                }
+        );
+
+        assertEquals("Запрос 1 просрочен", exception.getMessage());
+
+        Mockito.verify(bookingRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    void approveBooking_whenStatusRejected_thenThrow() {
+        booking.setStatus(BookingStatus.REJECTED);
+        Mockito.when(bookingRepository.findItemIdById(anyLong())).thenReturn(Optional.of(1L));
+        Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
+
+        Exception exception = assertThrows(
+                IncorrectParamException.class,
+                () -> {
+                    bookingService.approveBooking(1L, 1L, true);
+                }
+        );
+
+        assertEquals("Запрос 1 уже рассмотрен", exception.getMessage());
+
+        Mockito.verify(bookingRepository, Mockito.never()).save(any());
+    }
+
+    @Test
+    void approveBookings() {
+        Mockito.when(bookingRepository.findApprovalViewsByIdIn(any())).thenReturn(List.of(
+                approvalView(1L, 1L, BookingStatus.WAITING),
+                approvalView(2L, 1L, BookingStatus.WAITING),
+                approvalView(3L, 2L, BookingStatus.WAITING),
+                approvalView(5L, 1L, BookingStatus.APPROVED)));
+        Mockito.when(bookingRepository.updateStatus(List.of(1L), BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(1);
+        Mockito.when(bookingRepository.updateStatus(List.of(2L), BookingStatus.WAITING, BookingStatus.REJECTED)).thenReturn(1);
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(List.of(
+                new BookingApprovalDto(1L, true),
+                new BookingApprovalDto(2L, false),
+                new BookingApprovalDto(3L, true),
+                new BookingApprovalDto(4L, true),
+                new BookingApprovalDto(5L, true),
+                new BookingApprovalDto(1L, false)), 1L);
+
+        assertEquals(BookingApprovalResultDto.applied(1L, BookingStatus.APPROVED), results.get(0));
+        assertEquals(BookingApprovalResultDto.applied(2L, BookingStatus.REJECTED), results.get(1));
+        assertEquals("Пользователь 1 не владелец вещи 3", results.get(2).getError());
+        assertEquals("Запроса с id 4 не найдено", results.get(3).getError());
+        assertEquals("Запрос 5 уже подтвержден", results.get(4).getError());
+        assertEquals("Запрос 1 передан повторно", results.get(5).getError());
+        Mockito.verify(bookingRepository, Mockito.times(1)).findApprovalViewsByIdIn(any());
+        Mockito.verify(bookingRepository, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    void approveBookings_whenStatusChangedConcurrently_thenReportError() {
+        Mockito.when(bookingRepository.findApprovalViewsByIdIn(any()))
+                .thenReturn(List.of(approvalView(1L, 1L, BookingStatus.WAITING)));
+        Mockito.when(bookingRepository.updateStatus(List.of(1L), BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(0);
+        Mockito.when(bookingRepository.findIdsByIdInAndStatus(List.of(1L), BookingStatus.APPROVED)).thenReturn(List.of());
+
+        List<BookingApprovalResultDto> results = bookingService.approveBookings(List.of(new BookingApprovalDto(1L, true)), 1L);
+
+        assertNull(results.get(0).getStatus());
+        assertEquals("Запрос 1 уже рассмотрен", results.get(0).getError());
+    }
+
     @Test
     void getBookingById() {
         Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
@@ -204,6 +449,18 @@ class BookingServiceImplTest {
         assertEquals(booking.getId(), dto.getId());
     }
 
+    @Test
+    void getBookingById_whenArchived_thenReadArchive() {
+        ArchivedBooking archived = new ArchivedBooking(1L, booking.getStart(), booking.getEnd(), item, user,
+                BookingStatus.APPROVED, user.getId(), LocalDateTime.now());
+        Mockito.when(bookingArchiveRepository.findById(1L)).thenReturn(Optional.of(archived));
+
+        BookingDto dto = bookingService.getBookingById(1L, 1L);
+
+        assertEquals(1L, dto.getId());
+        assertEquals(BookingStatus.APPROVED, dto.getStatus());
+    }
+
     @Test
     void getBookingById_whenWrongUser_thenThrow() {
         Mockito.when(bookingRepository.findById(anyLong())).thenReturn(Optional.of(booking));
@@ -221,7 +478,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsByUserId_ALL() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByBookerIdOrderByStartDesc(anyLong(), any())).thenReturn(new PageImpl<>(List.of(booking)));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.ALL), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsByUserId(1L, "ALL", 0, 10);
 
@@ -231,7 +489,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsByUserId_CURRENT() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByBookerIdAndStartBeforeAndEndAfterOrderByStartAsc(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.CURRENT), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsByUserId(1L, "CURRENT", 0, 10);
 
@@ -241,7 +500,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsByUserId_FUTURE() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByBookerIdAndStartAfterAndEndAfterOrderByStartDesc(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.FUTURE), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsByUserId(1L, "FUTURE", 0, 10);
 
@@ -251,7 +511,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsByUserId_PAST() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByBookerIdAndStartBeforeAndEndBeforeOrderByStartDesc(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.PAST), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsByUserId(1L, "PAST", 0, 10);
 
@@ -261,7 +522,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsByUserId_WAITING() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(anyLong(), any(BookingStatus.class), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.WAITING), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsByUserId(1L, "WAITING", 0, 10);
 
@@ -271,7 +533,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsByUserId_REJECTED() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByBookerIdAndStatusOrderByStartDesc(anyLong(), any(BookingStatus.class), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.BOOKER), anyLong(), eq(BookingState.REJECTED), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsByUserId(1L, "REJECTED", 0, 10);
 
@@ -295,7 +558,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsForUserItems_ALL() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByItemOwnerIdOrderByStartDesc(anyLong(), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.ALL), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsForUserItems(1L, "ALL", 0, 10);
 
@@ -305,7 +569,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsForUserItems_CURRENT() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfterOrderByStartDesc(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.CURRENT), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsForUserItems(1L, "CURRENT", 0, 10);
 
@@ -315,7 +580,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsForUserItems_FUTURE() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByItemOwnerIdAndStartAfterAndEndAfterOrderByStartDesc(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.FUTURE), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsForUserItems(1L, "FUTURE", 0, 10);
 
@@ -325,7 +591,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsForUserItems_PAST() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByItemOwnerIdAndStartBeforeAndEndBeforeOrderByStartDesc(anyLong(), any(), any(), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.PAST), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsForUserItems(1L, "PAST", 0, 10);
 
@@ -335,7 +602,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsForUserItems_WAITING() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.WAITING), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsForUserItems(1L, "WAITING", 0, 10);
 
@@ -345,7 +613,8 @@ class BookingServiceImplTest {
     @Test
     void getAllBookingsForUserItems_REJECTED() {
         Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
-        Mockito.when(bookingRepository.findByItemOwnerIdAndStatusOrderByStartDesc(anyLong(), any(), any())).thenReturn(List.of(booking));
+        Mockito.when(bookingRepository.findBookings(eq(BookingRole.OWNER), anyLong(), eq(BookingState.REJECTED), isNull(), eq(0), eq(10)))
+                .thenReturn(List.of(booking));
 
         List<BookingDto> dtoList = bookingService.getAllBookingsForUserItems(1L, "REJECTED", 0, 10);
 
@@ -365,4 +634,78 @@ class BookingServiceImplTest {
 
         assertEquals("Unknown state: UNKNOWN", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void getBookingsByUserIdAfter_whenMoreRows_thenNextCursor() {
+        Booking second = Booking.builder().id(2L).start(booking.getStart().plusDays(1)).booker(user).item(item).build();
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        Mockito.when(bookingRepository.findBookings(any(), anyLong(), any(), any(), anyInt(), anyInt())).thenReturn(List.of(booking, second));
+
+        BookingPage page = bookingService.getBookingsByUserIdAfter(1L, "ALL", "", 1);
+
+        assertEquals(1, page.getBookings().size());
+        assertEquals(BookingCursor.of(booking), BookingCursor.decode(page.getNextCursor()));
+        Mockito.verify(bookingRepository).findBookings(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.ALL), isNull(), eq(0), eq(2));
+    }
+
+    @Test
+    void getBookingsForUserItemsAfter_whenLastPage_thenNoCursor() {
+        BookingCursor cursor = new BookingCursor(LocalDateTime.now(), 5L);
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        Mockito.when(bookingRepository.findBookings(any(), anyLong(), any(), any(), anyInt(), anyInt())).thenReturn(List.of(booking));
+
+        BookingPage page = bookingService.getBookingsForUserItemsAfter(1L, "WAITING", cursor.encode(), 10);
+
+        assertEquals(1, page.getBookings().size());
+        assertNull(page.getNextCursor());
+        Mockito.verify(bookingRepository).findBookings(eq(BookingRole.OWNER), eq(1L), eq(BookingState.WAITING), eq(cursor), eq(0), eq(11));
+    }
+
+    @Test
+    void getBookingsByUserIdAfter_whenSizeNotPositive_thenThrow() {
+        assertThrows(IncorrectParamException.class, () -> bookingService.getBookingsByUserIdAfter(1L, "ALL", "", 0));
+        assertThrows(IncorrectParamException.class, () -> bookingService.getBookingsForUserItemsAfter(1L, "ALL", "", -1));
+
+        Mockito.verify(bookingRepository, Mockito.never()).findBookings(any(), anyLong(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void getAllBookingsByUserId_whenFromIsNotPageAligned_thenOffsetIsKept() {
+        Mockito.when(bookingRepository.findBookings(any(), anyLong(), any(), any(), anyInt(), anyInt())).thenReturn(List.of(booking));
+
+        bookingService.getAllBookingsByUserId(1L, "ALL", 3, 2);
+
+        Mockito.verify(bookingRepository).findBookings(eq(BookingRole.BOOKER), eq(1L), eq(BookingState.ALL), isNull(), eq(3), eq(2));
+        Mockito.verify(userRepository, Mockito.never()).findById(anyLong());
+    }
+
+    @Test
+    void getAllBookingsByUserId_whenUserNotFound_thenThrow() {
+        Exception exception = assertThrows(
+                EntityNotFoundException.class,
+                () -> {
+                    bookingService.getAllBookingsByUserId(1L, "ALL", 0, 10);
+                }
+        );
+
+        assertEquals("Пользователя с id 1 не найдено", exception.getMessage());
+    }
+
+    private BookingApprovalView approvalView(Long id, Long ownerId, BookingStatus status) {
+        BookingApprovalView view = Mockito.mock(BookingApprovalView.class);
+        Mockito.when(view.getId()).thenReturn(id);
+        Mockito.when(view.getItemId()).thenReturn(id);
+        Mockito.when(view.getOwnerId()).thenReturn(ownerId);
+        Mockito.when(view.getStatus()).thenReturn(status);
+        Mockito.when(view.getStartDate()).thenReturn(booking.getStart());
+        return view;
+    }
+
+    private MultiBookingRequestDto multiBookingRequest(List<Long> itemIds) {
+        MultiBookingRequestDto request = new MultiBookingRequestDto();
+        request.setItemIds(itemIds);
+        request.setStart(bookingRequestDto.getStart());
+        request.setEnd(bookingRequestDto.getEnd());
+        return request;
+    }
+}
@@ -0,0 +1,79 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.dao.BookingStatsRepository;
+import ru.practicum.shareit.booking.dao.BookingStatsView;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+class BookingStatsBackfillTest {
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final BookingArchiveRepository bookingArchiveRepository = Mockito.mock(BookingArchiveRepository.class);
+    private final BookingSeriesRepository bookingSeriesRepository = Mockito.mock(BookingSeriesRepository.class);
+    private final BookingStatsRepository bookingStatsRepository = Mockito.mock(BookingStatsRepository.class);
+    private final BookingStatsRecorder bookingStatsRecorder = Mockito.mock(BookingStatsRecorder.class);
+    private final BookingStatsBackfill backfill = new BookingStatsBackfill(bookingRepository, bookingArchiveRepository,
+            bookingSeriesRepository, bookingStatsRepository, bookingStatsRecorder, Mockito.mock(PlatformTransactionManager.class), 2);
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void backfill_whenStatsEmpty_thenRecordBookingsAndArchiveInBatches() {
+        Mockito.when(bookingArchiveRepository.findStatsViewsAfter(anyLong(), any()))
+                .thenReturn(List.of(view(1L, BookingStatus.APPROVED)));
+        Mockito.when(bookingRepository.findStatsViewsAfter(eq(0L), any()))
+                .thenReturn(List.of(view(2L, BookingStatus.WAITING), view(3L, BookingStatus.REJECTED)));
+        Mockito.when(bookingRepository.findStatsViewsAfter(eq(3L), any()))
+                .thenReturn(List.of());
+
+        backfill.backfill();
+
+        ArgumentCaptor<Collection<BookingStatsRecorder.Change>> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(bookingStatsRecorder, Mockito.times(2)).record(captor.capture());
+        List<BookingStatus> recorded = new ArrayList<>();
+        for (Collection<BookingStatsRecorder.Change> changes : captor.getAllValues()) {
+            for (BookingStatsRecorder.Change change : changes) {
+                assertNull(change.getFrom());
+                recorded.add(change.getTo());
+            }
+        }
+        assertEquals(List.of(BookingStatus.APPROVED, BookingStatus.WAITING, BookingStatus.REJECTED), recorded);
+        Mockito.verify(bookingRepository).findStatsViewsAfter(eq(3L), any());
+    }
+
+    @Test
+    void backfill_whenStatsPresent_thenSkip() {
+        Mockito.when(bookingStatsRepository.count()).thenReturn(1L);
+
+        backfill.backfill();
+
+        Mockito.verifyNoInteractions(bookingRepository, bookingArchiveRepository, bookingSeriesRepository,
+                bookingStatsRecorder);
+    }
+
+    private BookingStatsView view(Long id, BookingStatus status) {
+        BookingStatsView view = Mockito.mock(BookingStatsView.class);
+        Mockito.when(view.getId()).thenReturn(id);
+        Mockito.when(view.getItemId()).thenReturn(10L);
+        Mockito.when(view.getStatus()).thenReturn(status);
+        Mockito.when(view.getStartDate()).thenReturn(start);
+        Mockito.when(view.getEndDate()).thenReturn(start.plusHours(1));
+        return view;
+    }
+}
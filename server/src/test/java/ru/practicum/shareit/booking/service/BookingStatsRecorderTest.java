@@ -0,0 +1,92 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.dao.BookingStatsRepository;
+import ru.practicum.shareit.booking.model.BookingStats;
+import ru.practicum.shareit.booking.model.BookingStatsId;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+
+class BookingStatsRecorderTest {
+    private final BookingStatsRepository bookingStatsRepository = Mockito.mock(BookingStatsRepository.class);
+    private final BookingStatsRecorder recorder = new BookingStatsRecorder(bookingStatsRepository);
+    private final LocalDateTime start = LocalDateTime.of(2030, 1, 31, 22, 0);
+    private final BookingStatsId january = new BookingStatsId(1L, LocalDate.of(2030, 1, 1));
+    private final BookingStatsId february = new BookingStatsId(1L, LocalDate.of(2030, 2, 1));
+
+    @Test
+    void splitByMonth_whenCrossesMonth_thenSplitMinutes() {
+        Map<BookingStatsId, Long> minutes = BookingStatsRecorder.splitByMonth(
+                new BookingStatsRecorder.Change(1L, start, start.plusHours(5), null, BookingStatus.APPROVED));
+
+        assertEquals(Map.of(january, 120L, february, 180L), minutes);
+    }
+
+    @Test
+    void record_whenCreated_thenIncrementWaiting() {
+        List<BookingStats> saved = record(List.of(), new BookingStatsRecorder.Change(1L, start, start.plusHours(5),
+                null, BookingStatus.WAITING));
+
+        assertEquals(1, saved.size());
+        assertEquals(january, saved.get(0).getId());
+        assertEquals(1, saved.get(0).getWaiting());
+        assertEquals(0, saved.get(0).getBookedMinutes());
+    }
+
+    @Test
+    void record_whenApproved_thenMoveCounterAndAddMinutes() {
+        BookingStats existing = new BookingStats(january);
+        existing.setWaiting(2);
+
+        List<BookingStats> saved = record(List.of(existing), new BookingStatsRecorder.Change(1L, start,
+                start.plusHours(5), BookingStatus.WAITING, BookingStatus.APPROVED));
+
+        BookingStats first = saved.stream().filter(row -> row.getId().equals(january)).findFirst().get();
+        BookingStats second = saved.stream().filter(row -> row.getId().equals(february)).findFirst().get();
+        assertEquals(1, first.getWaiting());
+        assertEquals(1, first.getApproved());
+        assertEquals(120, first.getBookedMinutes());
+        assertEquals(0, second.getApproved());
+        assertEquals(180, second.getBookedMinutes());
+    }
+
+    @Test
+    void record_whenRowMissesBooking_thenNotBelowZero() {
+        List<BookingStats> saved = record(List.of(), new BookingStatsRecorder.Change(1L, start, start.plusHours(1),
+                BookingStatus.APPROVED, BookingStatus.CANCELED));
+
+        assertEquals(1, saved.size());
+        assertEquals(0, saved.get(0).getApproved());
+        assertEquals(1, saved.get(0).getCanceled());
+        assertEquals(0, saved.get(0).getBookedMinutes());
+    }
+
+    @Test
+    void record_whenEmpty_thenNoQueries() {
+        recorder.record(List.of());
+
+        Mockito.verifyNoInteractions(bookingStatsRepository);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<BookingStats> record(List<BookingStats> existing, BookingStatsRecorder.Change change) {
+        Mockito.when(bookingStatsRepository.findAllById(any())).thenReturn(existing);
+
+        recorder.record(change);
+
+        ArgumentCaptor<Collection<BookingStats>> captor = ArgumentCaptor.forClass(Collection.class);
+        Mockito.verify(bookingStatsRepository).saveAll(captor.capture());
+        return new ArrayList<>(captor.getValue());
+    }
+}
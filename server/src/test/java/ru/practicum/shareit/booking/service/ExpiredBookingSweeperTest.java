@@ -0,0 +1,151 @@
+package ru.practicum.shareit.booking.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.dao.BookingSlot;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.booking.model.BookingSeries;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.model.SeriesFrequency;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.outbox.OutboxPublisher;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+class ExpiredBookingSweeperTest {
+    private final BookingRepository bookingRepository = Mockito.mock(BookingRepository.class);
+    private final BookingSeriesRepository bookingSeriesRepository = Mockito.mock(BookingSeriesRepository.class);
+    private final BookingIntervalIndex bookingIntervalIndex = Mockito.mock(BookingIntervalIndex.class);
+    private final ItemLockStripes itemLockStripes = Mockito.mock(ItemLockStripes.class);
+    private final OutboxPublisher outboxPublisher = Mockito.mock(OutboxPublisher.class);
+    private final BookingStatsRecorder bookingStatsRecorder = Mockito.mock(BookingStatsRecorder.class);
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final LocalDateTime start = LocalDateTime.now().minusMinutes(5);
+
+    @Test
+    void sweep_thenExpireOnlyStillWaiting() {
+        ExpiredBookingSweeper sweeper = sweeper(10);
+        BookingSlot first = slot(1L, 10L);
+        BookingSlot second = slot(2L, 20L);
+        Mockito.when(bookingRepository.findSlotsByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any()))
+                .thenReturn(List.of(first, second));
+        Mockito.when(bookingRepository.findIdsByIdInAndStatus(anyCollection(), eq(BookingStatus.WAITING)))
+                .thenReturn(List.of(1L));
+
+        sweeper.sweep();
+
+        Mockito.verify(bookingRepository).updateStatus(List.of(1L), BookingStatus.WAITING, BookingStatus.EXPIRED);
+        Mockito.verify(bookingIntervalIndex).remove(10L, 1L, start);
+        Mockito.verify(bookingIntervalIndex, Mockito.never()).remove(eq(20L), anyLong(), any());
+        Mockito.verify(outboxPublisher).publish(Mockito.<List<BookingEvent>>argThat(events -> events.size() == 1
+                && events.get(0).getBookingId() == 1L && events.get(0).getType() == BookingEventType.EXPIRED));
+        Mockito.verify(bookingStatsRecorder).record(Mockito.<List<BookingStatsRecorder.Change>>argThat(changes ->
+                changes.size() == 1 && changes.get(0).getItemId() == 10L
+                        && changes.get(0).getTo() == BookingStatus.EXPIRED));
+        assertEquals(1.0, meterRegistry.get("shareit.bookings.expired").counter().count());
+    }
+
+    @Test
+    void sweep_whenBatchIsFull_thenTakeNextBatch() {
+        ExpiredBookingSweeper sweeper = sweeper(1);
+        Mockito.when(bookingRepository.findSlotsByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any()))
+                .thenReturn(List.of(slot(1L, 10L)))
+                .thenReturn(List.of());
+        Mockito.when(bookingRepository.findIdsByIdInAndStatus(anyCollection(), eq(BookingStatus.WAITING)))
+                .thenReturn(List.of(1L));
+
+        sweeper.sweep();
+
+        Mockito.verify(bookingRepository, Mockito.times(2))
+                .findSlotsByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any());
+    }
+
+    @Test
+    void sweep_whenFullBatchApprovedConcurrently_thenStillTakeNextBatch() {
+        ExpiredBookingSweeper sweeper = sweeper(2);
+        Mockito.when(bookingRepository.findSlotsByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any()))
+                .thenReturn(List.of(slot(1L, 10L), slot(2L, 20L)))
+                .thenReturn(List.of(slot(3L, 30L)));
+        Mockito.when(bookingRepository.findIdsByIdInAndStatus(anyCollection(), eq(BookingStatus.WAITING)))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of(3L));
+
+        sweeper.sweep();
+
+        Mockito.verify(bookingRepository, Mockito.times(2))
+                .findSlotsByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any());
+        Mockito.verify(bookingRepository).updateStatus(List.of(3L), BookingStatus.WAITING, BookingStatus.EXPIRED);
+        assertEquals(2.0, meterRegistry.get("shareit.bookings.expired").counter().count());
+    }
+
+    @Test
+    void sweep_thenReportLag() {
+        ExpiredBookingSweeper sweeper = sweeper(10);
+        Mockito.when(bookingRepository.findMinStartByStatusAndStartBefore(eq(BookingStatus.WAITING), any()))
+                .thenReturn(Optional.of(start));
+
+        sweeper.sweep();
+
+        assertTrue(meterRegistry.get("shareit.bookings.expiry.lag").gauge().value() >= 300);
+    }
+
+    @Test
+    void sweep_whenSeriesNotApprovedBeforeFirstOccurrence_thenExpireSeries() {
+        ExpiredBookingSweeper sweeper = sweeper(10);
+        Item item = new Item();
+        item.setId(10L);
+        BookingSeries series = BookingSeries.builder()
+                .id(5L)
+                .item(item)
+                .start(start)
+                .end(start.plusHours(1))
+                .frequency(SeriesFrequency.WEEKLY)
+                .interval(1)
+                .until(start.plusWeeks(2))
+                .status(BookingStatus.WAITING)
+                .build();
+        Mockito.when(bookingSeriesRepository.findByStatusAndStartBefore(eq(BookingStatus.WAITING), any(), any()))
+                .thenReturn(List.of(series));
+        Mockito.when(bookingSeriesRepository.findIdsByIdInAndStatus(anyCollection(), eq(BookingStatus.WAITING)))
+                .thenReturn(List.of(5L));
+
+        sweeper.sweep();
+
+        Mockito.verify(itemLockStripes).lockAllUntilCompletion(List.of(10L));
+        Mockito.verify(bookingSeriesRepository).updateStatus(List.of(5L), BookingStatus.WAITING, BookingStatus.EXPIRED);
+        Mockito.verify(bookingIntervalIndex).removeSeries(10L, 5L);
+        Mockito.verify(outboxPublisher).publish(Mockito.<List<BookingEvent>>argThat(events -> events.size() == 1
+                && events.get(0).getSeriesId() == 5L && events.get(0).getType() == BookingEventType.EXPIRED));
+        Mockito.verify(bookingStatsRecorder).record(Mockito.<List<BookingStatsRecorder.Change>>argThat(changes ->
+                changes.size() == 3 && changes.stream().allMatch(change -> change.getTo() == BookingStatus.EXPIRED)));
+    }
+
+    private ExpiredBookingSweeper sweeper(int batchSize) {
+        return new ExpiredBookingSweeper(bookingRepository, bookingSeriesRepository, bookingIntervalIndex, itemLockStripes, outboxPublisher,
+                bookingStatsRecorder, Mockito.mock(PlatformTransactionManager.class), meterRegistry, batchSize);
+    }
+
+    private BookingSlot slot(Long id, Long itemId) {
+        BookingSlot slot = Mockito.mock(BookingSlot.class);
+        Mockito.when(slot.getId()).thenReturn(id);
+        Mockito.when(slot.getItemId()).thenReturn(itemId);
+        Mockito.when(slot.getStartDate()).thenReturn(start);
+        Mockito.when(slot.getEndDate()).thenReturn(start.plusHours(1));
+        return slot;
+    }
+}
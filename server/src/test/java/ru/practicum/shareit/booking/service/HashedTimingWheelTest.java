@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    @Test
+    void advance_whenDeadlineReached_thenFire() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.schedule(250, "a");
+        wheel.schedule(420, "b");
+
+        assertTrue(wheel.advance(200).isEmpty());
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertEquals(List.of("b"), wheel.advance(500));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void advance_whenDeadlineBeyondOneRotation_thenWaitForIt() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 4, 0);
+        wheel.schedule(300, "near");
+        wheel.schedule(700, "far");
+
+        assertEquals(List.of("near"), wheel.advance(300));
+        assertTrue(wheel.advance(600).isEmpty());
+        assertEquals(List.of("far"), wheel.advance(700));
+    }
+
+    @Test
+    void advance_whenLongPause_thenFireEverythingDue() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 4, 0);
+        wheel.schedule(100, "a");
+        wheel.schedule(900, "b");
+        wheel.schedule(5000, "c");
+
+        List<String> fired = wheel.advance(1000);
+
+        assertEquals(2, fired.size());
+        assertTrue(fired.containsAll(List.of("a", "b")));
+        assertEquals(1, wheel.size());
+    }
+
+    @Test
+    void schedule_whenDeadlinePassed_thenFireOnNextTick() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 4, 1000);
+        wheel.schedule(10, "late");
+
+        assertEquals(List.of("late"), wheel.advance(1100));
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.booking.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ItemLockStripesTest {
+    private static final int ITEMS = 1024;
+    private static final int OPERATIONS_PER_THREAD = 50_000;
+
+    @Test
+    void stripeOf_whenNeighbourItems_thenDifferentStripes() {
+        ItemLockStripes stripes = new ItemLockStripes(64);
+
+        assertNotEquals(stripes.stripeOf(1L), stripes.stripeOf(2L));
+        assertEquals(stripes.stripeOf(1L), stripes.stripeOf(65L));
+    }
+
+    @Test
+    void lockUntilCompletion_whenNoTransaction_thenThrow() {
+        ItemLockStripes stripes = new ItemLockStripes(64);
+
+        assertThrows(IllegalStateException.class, () -> stripes.lockUntilCompletion(1L));
+    }
+
+    /**
+     * Как approveBookings: каждая операция берёт блокировки двух случайных вещей до конца транзакции.
+     * Потерянных обновлений и взаимных блокировок быть не должно.
+     */
+    @Test
+    void lockAllUntilCompletion_stressAcrossCores() throws Exception {
+        int cores = Runtime.getRuntime().availableProcessors();
+        for (int threads = 1; threads <= cores; threads *= 2) {
+            ItemLockStripes stripes = new ItemLockStripes(64);
+            long[] counters = new long[ITEMS];
+
+            runConcurrently(threads, () -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                    int first = random.nextInt(ITEMS);
+                    int second = random.nextInt(ITEMS);
+                    inTransaction(() -> {
+                        stripes.lockAllUntilCompletion(List.of((long) second, (long) first));
+                        counters[first]++;
+                        counters[second]++;
+                    });
+                }
+            });
+
+            long total = 0;
+            for (long counter : counters) {
+                total += counter;
+            }
+            assertEquals(2L * threads * OPERATIONS_PER_THREAD, total);
+        }
+    }
+
+    @Test
+    void lockUntilCompletion_whenHotItemIsBusy_thenOtherItemsProceed() throws Exception {
+        ItemLockStripes stripes = new ItemLockStripes(64);
+        CountDownLatch hotLocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            executor.submit(() -> inTransaction(() -> {
+                stripes.lockUntilCompletion(0L);
+                hotLocked.countDown();
+                try {
+                    release.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertTrue(hotLocked.await(5, TimeUnit.SECONDS));
+
+            inTransaction(() -> stripes.lockUntilCompletion(1L));
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Имитирует транзакцию текущего потока: блокировки снимаются в afterCompletion.
+     */
+    private static void inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+        } finally {
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            TransactionSynchronizationManager.clearSynchronization();
+            synchronizations.forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        }
+    }
+
+    private void runConcurrently(int threads, Runnable task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    task.run();
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
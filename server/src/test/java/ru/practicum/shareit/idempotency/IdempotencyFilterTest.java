@@ -0,0 +1,143 @@
+package ru.practicum.shareit.idempotency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+class IdempotencyFilterTest {
+    private final IdempotencyFilter filter = new IdempotencyFilter(
+            new InMemoryIdempotencyStore(Duration.ofMinutes(1), 100), new ObjectMapper());
+    private final AtomicInteger calls = new AtomicInteger();
+    private final FilterChain chain = (request, response) -> {
+        int call = calls.incrementAndGet();
+        HttpServletResponse httpResponse = (HttpServletResponse) response;
+        httpResponse.setStatus(200);
+        httpResponse.setContentType("application/json");
+        httpResponse.getOutputStream().write(String.format("{\"id\":%d}", call).getBytes(StandardCharsets.UTF_8));
+    };
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenReplayed_thenReturnStoredResponse() {
+        MockHttpServletResponse first = perform("POST", "/bookings", "key-1", 1L);
+        MockHttpServletResponse second = perform("POST", "/bookings", "key-1", 1L);
+
+        assertEquals(1, calls.get());
+        assertEquals("{\"id\":1}", first.getContentAsString());
+        assertEquals("{\"id\":1}", second.getContentAsString());
+        assertEquals("application/json", second.getContentType());
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenOtherUserOrPath_thenExecute() {
+        perform("POST", "/bookings", "key-1", 1L);
+        perform("POST", "/bookings", "key-1", 2L);
+        perform("POST", "/items", "key-1", 1L);
+
+        assertEquals(3, calls.get());
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenNoKeyOrNotPost_thenSkip() {
+        perform("POST", "/bookings", null, 1L);
+        perform("POST", "/bookings", null, 1L);
+        perform("PATCH", "/bookings/1", "key-1", 1L);
+        perform("PATCH", "/bookings/1", "key-1", 1L);
+
+        assertEquals(4, calls.get());
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenFailed_thenDoNotStore() {
+        FilterChain failing = (request, response) -> {
+            calls.incrementAndGet();
+            ((HttpServletResponse) response).setStatus(400);
+        };
+        filter.doFilter(request("POST", "/bookings", "key-1", 1L), new MockHttpServletResponse(), failing);
+
+        perform("POST", "/bookings", "key-1", 1L);
+
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenSameKeyWithOtherBody_thenUnprocessable() {
+        MockHttpServletRequest first = request("POST", "/bookings", "key-1", 1L);
+        first.setContent("{\"itemId\":1}".getBytes(StandardCharsets.UTF_8));
+        MockHttpServletRequest second = request("POST", "/bookings", "key-1", 1L);
+        second.setContent("{\"itemId\":2}".getBytes(StandardCharsets.UTF_8));
+        StringBuilder received = new StringBuilder();
+        FilterChain reading = (request, response) -> {
+            received.append(new String(request.getInputStream().readAllBytes(), StandardCharsets.UTF_8));
+            chain.doFilter(request, response);
+        };
+
+        filter.doFilter(first, new MockHttpServletResponse(), reading);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(second, response, reading);
+
+        assertEquals("{\"itemId\":1}", received.toString());
+        assertEquals(422, response.getStatus());
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenStoreFails_thenStillReturnResponse() {
+        IdempotencyStore failingStore = Mockito.mock(IdempotencyStore.class);
+        Mockito.when(failingStore.find(anyString())).thenReturn(Optional.empty());
+        Mockito.doThrow(new RuntimeException("db")).when(failingStore).save(anyString(), any());
+        IdempotencyFilter failingFilter = new IdempotencyFilter(failingStore, new ObjectMapper());
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        failingFilter.doFilter(request("POST", "/bookings", "key-1", 1L), response, chain);
+
+        assertEquals(200, response.getStatus());
+        assertEquals("{\"id\":1}", response.getContentAsString());
+    }
+
+    @Test
+    @SneakyThrows
+    void doFilter_whenKeyTooLong_thenBadRequest() {
+        MockHttpServletResponse response = perform("POST", "/bookings", "k".repeat(256), 1L);
+
+        assertEquals(400, response.getStatus());
+        assertTrue(response.getContentAsString(StandardCharsets.UTF_8).contains("error"));
+        assertEquals(0, calls.get());
+    }
+
+    @SneakyThrows
+    private MockHttpServletResponse perform(String method, String uri, String key, Long userId) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, uri, key, userId), response, chain);
+        return response;
+    }
+
+    private MockHttpServletRequest request(String method, String uri, String key, Long userId) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.addHeader(IdempotencyFilter.USER_HEADER, userId);
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        return request;
+    }
+}
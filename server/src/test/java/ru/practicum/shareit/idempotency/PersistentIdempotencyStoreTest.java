@@ -0,0 +1,47 @@
+package ru.practicum.shareit.idempotency;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.idempotency.dao.IdempotencyRecordRepository;
+import ru.practicum.shareit.idempotency.model.IdempotencyRecord;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+class PersistentIdempotencyStoreTest {
+    private final IdempotencyRecordRepository repository = Mockito.mock(IdempotencyRecordRepository.class);
+    private final PersistentIdempotencyStore store = new PersistentIdempotencyStore(
+            new InMemoryIdempotencyStore(Duration.ofHours(1), 100), repository, Duration.ofHours(1));
+
+    @Test
+    void save_thenFindWithoutDatabase() {
+        StoredResponse response = new StoredResponse(200, "application/json", "{}".getBytes(StandardCharsets.UTF_8),
+                "hash");
+
+        store.save("1:/items:key", response);
+
+        assertTrue(store.find("1:/items:key").isPresent());
+        Mockito.verify(repository).save(any(IdempotencyRecord.class));
+        Mockito.verify(repository, Mockito.never()).findByKeyAndCreatedAfter(anyString(), any());
+    }
+
+    @Test
+    void find_whenOnlyInDatabase_thenLoadAndCache() {
+        Mockito.when(repository.findByKeyAndCreatedAfter(eq("1:/items:key"), any()))
+                .thenReturn(Optional.of(new IdempotencyRecord("1:/items:key", 200, "application/json", "{}",
+                        "hash", LocalDateTime.now())));
+
+        assertArrayEquals("{}".getBytes(StandardCharsets.UTF_8), store.find("1:/items:key").get().getBody());
+        store.find("1:/items:key");
+
+        Mockito.verify(repository, Mockito.times(1)).findByKeyAndCreatedAfter(eq("1:/items:key"), any());
+    }
+}
@@ -12,12 +12,15 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemExtendedDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
 import ru.practicum.shareit.item.service.ItemService;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 
 import static org.hamcrest.Matchers.is;
@@ -194,6 +197,39 @@ class ItemControllerTest {
                 .andExpect(status().is(400));
     }
 
+    @Test
+    @SneakyThrows
+    void getAvailability() {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        when(itemService.getAvailability(anyLong(), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenReturn(List.of(new AvailabilityRangeDto(start, start.plusHours(2), false)));
+
+        mvc.perform(get("/items/1/availability")
+                .param("from", "2030-01-01T10:00:00")
+                .param("to", "2030-01-01T12:00:00")
+                .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].free", is(false)));
+    }
+
+    @Test
+    @SneakyThrows
+    void suggest() {
+        when(itemService.suggest("дре"))
+                .thenReturn(List.of(new ItemSuggestionDto("дрель", 3), new ItemSuggestionDto("дрезина", 1)));
+
+        mvc.perform(get("/items/suggest")
+                .header("X-Sharer-User-Id", 1)
+                .param("prefix", "дре")
+                .accept(MediaType.APPLICATION_JSON))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].items", is(3)));
+    }
+
     @Test
     @SneakyThrows
     void addComment() {
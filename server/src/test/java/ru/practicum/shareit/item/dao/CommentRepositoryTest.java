@@ -0,0 +1,90 @@
+package ru.practicum.shareit.item.dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import ru.practicum.shareit.item.model.Comment;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.dao.UserRepository;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class CommentRepositoryTest {
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User author;
+    private Item first;
+    private Item second;
+
+    @BeforeEach
+    void setUp() {
+        author = userRepository.save(User.builder().name("author").email("author@mail.com").build());
+        first = saveItem("first");
+        second = saveItem("second");
+    }
+
+    @AfterEach
+    void tearDown() {
+        commentRepository.deleteAll();
+        itemRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void findViewsByItemIdIn_thenCommentsOfAllItemsWithAuthorName() {
+        Comment one = saveComment(first, "one");
+        Comment two = saveComment(second, "two");
+        Comment three = saveComment(first, "three");
+
+        List<CommentView> views = commentRepository.findViewsByItemIdIn(List.of(first.getId(), second.getId()));
+
+        assertEquals(List.of(one.getId(), two.getId(), three.getId()),
+                views.stream().map(CommentView::getId).collect(Collectors.toList()));
+        assertEquals(first.getId(), views.get(0).getItemId());
+        assertEquals("one", views.get(0).getText());
+        assertEquals("author", views.get(0).getAuthorName());
+        assertEquals(one.getCreated(), views.get(0).getCreated());
+    }
+
+    @Test
+    void findViewsByItemIdIn_whenOtherItem_thenEmpty() {
+        saveComment(first, "one");
+
+        assertTrue(commentRepository.findViewsByItemIdIn(List.of(second.getId())).isEmpty());
+    }
+
+    private Item saveItem(String name) {
+        Item item = new Item();
+        item.setName(name);
+        item.setDescription("description");
+        item.setAvailable(true);
+        item.setOwner(author);
+        return itemRepository.save(item);
+    }
+
+    private Comment saveComment(Item item, String text) {
+        Comment comment = new Comment();
+        comment.setItem(item);
+        comment.setAuthor(author);
+        comment.setText(text);
+        comment.setCreated(LocalDateTime.of(2024, 1, 1, 12, 0));
+        return commentRepository.save(comment);
+    }
+}
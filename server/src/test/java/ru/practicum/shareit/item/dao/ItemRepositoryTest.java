@@ -7,7 +7,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.service.ItemSearchIndex;
 import ru.practicum.shareit.request.dao.RequestRepository;
 import ru.practicum.shareit.request.model.ItemRequest;
 import ru.practicum.shareit.user.dao.UserRepository;
@@ -15,6 +18,7 @@ import ru.practicum.shareit.user.model.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -72,6 +76,15 @@ class ItemRepositoryTest {
         itemRepository.save(item);
     }
 
+    private Item save(String name, String description) {
+        Item other = new Item();
+        other.setOwner(user);
+        other.setName(name);
+        other.setDescription(description);
+        other.setAvailable(true);
+        return itemRepository.save(other);
+    }
+
     @AfterEach
     void tearDown() {
         itemRepository.deleteAll();
@@ -96,6 +109,63 @@ class ItemRepositoryTest {
         assertEquals(item.getDescription(), itemList.get(0).getDescription());
     }
 
+    @Test
+    void searchByText_thenOrderByRelevance() {
+        Item descriptionWord = save("Ножовка", "Пила по дереву");
+        Item nameSubstring = save("Пилатес коврик", "Для зала");
+        Item nameWord = save("Электро пила", "Сетевая");
+        Item descriptionSubstring = save("Ножи", "Распилка");
+
+        Slice<Item> slice = itemRepository.searchByText("пила", PageRequest.of(0, 3));
+
+        assertEquals(List.of(nameWord.getId(), nameSubstring.getId(), descriptionWord.getId()),
+                slice.map(Item::getId).getContent());
+        assertTrue(slice.hasNext());
+        assertEquals(List.of(descriptionSubstring.getId()),
+                itemRepository.searchByText("пила", PageRequest.of(1, 3)).map(Item::getId).getContent());
+    }
+
+    @Test
+    void search_thenSameOrderInDatabaseAndMemory() {
+        save("Пила, ручная", "Стальная");
+        save("Электро-пила", "Сетевая");
+        save("Электро пила", "Аккумуляторная");
+        save("Пилатес коврик", "Для зала");
+        save("Ножовка", "Пила по дереву");
+        save("Ножи", "Распилка (пила.)");
+        save("Топор", "Не пила");
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository);
+        index.rebuild();
+
+        List<Long> expected = itemRepository.searchByText("пила", PageRequest.of(0, 20)).map(Item::getId).getContent();
+
+        assertEquals(7, expected.size());
+        assertEquals(expected, itemRepository.searchByTextTrigram("пила", PageRequest.of(0, 20))
+                .map(Item::getId).getContent());
+        assertEquals(expected, index.search("пила", 0, 20).stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void searchByTextTrigram() {
+        List<Item> itemList = itemRepository.searchByTextTrigram("DESCRIPTION", PageRequest.of(0, 10)).getContent();
+
+        assertEquals(1, itemList.size());
+        assertEquals(item.getId(), itemList.get(0).getId());
+        assertTrue(itemRepository.searchByTextTrigram("missing", PageRequest.of(0, 10)).isEmpty());
+    }
+
+    @Test
+    void findSearchViewsAfter() {
+        List<ItemSearchView> views = itemRepository.findSearchViewsAfter(0, PageRequest.of(0, 10));
+
+        assertEquals(1, views.size());
+        assertEquals(item.getId(), views.get(0).getId().longValue());
+        assertEquals(itemRequest.getId(), views.get(0).getRequestId());
+        assertTrue(itemRepository.findSearchViewsAfter(item.getId(), PageRequest.of(0, 10)).isEmpty());
+    }
+
     @Test
     void findAllByRequestId() {
         List<Item> itemList = itemRepository.findAllByRequestId(itemRequest.getId());
@@ -103,4 +173,12 @@ class ItemRepositoryTest {
         assertTrue(itemList.size() == 1);
         assertEquals(item.getDescription(), itemList.get(0).getDescription());
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllWithOwnerByIdIn() {
+        List<Item> items = itemRepository.findAllWithOwnerByIdIn(List.of(item.getId(), item.getId() + 1));
+
+        assertEquals(1, items.size());
+        assertEquals(user.getId(), items.get(0).getOwner().getId());
+    }
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dto.ItemMapper;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+
+class DatabaseItemTextSearchTest {
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final ItemMapper itemMapper = Mockito.mock(ItemMapper.class);
+
+    @Test
+    void search_whenPostgres_thenUseTrigramQuery() {
+        DatabaseItemTextSearch search = new DatabaseItemTextSearch(itemRepository, itemMapper,
+                "jdbc:postgresql://localhost:5432/shareit");
+        Mockito.when(itemRepository.searchByTextTrigram(anyString(), any())).thenReturn(new SliceImpl<>(List.of()));
+
+        search.search("дрель", 20, 10);
+
+        assertTrue(search.isPostgres());
+        Mockito.verify(itemRepository).searchByTextTrigram("дрель", PageRequest.of(2, 10));
+        Mockito.verify(itemRepository, Mockito.never()).searchByText(anyString(), any());
+    }
+
+    @Test
+    void search_whenH2_thenUseJpql() {
+        DatabaseItemTextSearch search = new DatabaseItemTextSearch(itemRepository, itemMapper, "jdbc:h2:mem:shareit");
+        Mockito.when(itemRepository.searchByText(anyString(), any())).thenReturn(new SliceImpl<>(List.of()));
+
+        search.search("дрель", 0, 10);
+
+        assertFalse(search.isPostgres());
+        Mockito.verify(itemRepository).searchByText(eq("дрель"), any());
+        Mockito.verify(itemRepository, Mockito.never()).searchByTextTrigram(anyString(), any());
+    }
+}
@@ -0,0 +1,93 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.dao.BookingRepository;
+import ru.practicum.shareit.booking.dao.BookingSeriesRepository;
+import ru.practicum.shareit.booking.model.Recurrence;
+import ru.practicum.shareit.booking.service.BookingIntervalIndex;
+import ru.practicum.shareit.exceptions.IncorrectParamException;
+import ru.practicum.shareit.item.dto.AvailabilityRangeDto;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemAvailabilityIndexTest {
+    private final BookingIntervalIndex bookingIntervalIndex = new BookingIntervalIndex(
+            Mockito.mock(BookingRepository.class), Mockito.mock(BookingSeriesRepository.class));
+    private final ItemAvailabilityIndex index = new ItemAvailabilityIndex(bookingIntervalIndex, 180, 100);
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.HOURS).plusDays(2);
+        bookingIntervalIndex.add(1L, 10L, base.plusHours(1), base.plusHours(3));
+    }
+
+    @Test
+    void getAvailability_whenBookingInWindow_thenSplitRanges() {
+        List<AvailabilityRangeDto> ranges = index.getAvailability(1L, base, base.plusHours(5));
+
+        assertEquals(3, ranges.size());
+        assertEquals(new AvailabilityRangeDto(base, base.plusHours(1), true), ranges.get(0));
+        assertEquals(new AvailabilityRangeDto(base.plusHours(1), base.plusHours(3), false), ranges.get(1));
+        assertEquals(new AvailabilityRangeDto(base.plusHours(3), base.plusHours(5), true), ranges.get(2));
+    }
+
+    @Test
+    void getAvailability_whenPartialHour_thenRoundOutward() {
+        bookingIntervalIndex.add(2L, 20L, base.plusMinutes(30), base.plusMinutes(90));
+
+        List<AvailabilityRangeDto> ranges = index.getAvailability(2L, base, base.plusHours(3));
+
+        assertEquals(2, ranges.size());
+        assertEquals(new AvailabilityRangeDto(base, base.plusHours(2), false), ranges.get(0));
+        assertEquals(new AvailabilityRangeDto(base.plusHours(2), base.plusHours(3), true), ranges.get(1));
+    }
+
+    @Test
+    void getAvailability_whenSeries_thenOccurrencesBusy() {
+        bookingIntervalIndex.addSeries(3L, 30L, new Recurrence(base, base.plusHours(1), Duration.ofDays(1),
+                base.plusDays(3)));
+
+        List<AvailabilityRangeDto> ranges = index.getAvailability(3L, base.plusHours(12), base.plusDays(1).plusHours(2));
+
+        assertEquals(3, ranges.size());
+        assertFalse(ranges.get(1).isFree());
+        assertEquals(base.plusDays(1), ranges.get(1).getStart());
+        assertEquals(base.plusDays(1).plusHours(1), ranges.get(1).getEnd());
+    }
+
+    @Test
+    void getAvailability_whenIndexChanged_thenRebuildCalendar() {
+        index.getAvailability(1L, base, base.plusHours(5));
+
+        bookingIntervalIndex.remove(1L, 10L, base.plusHours(1));
+        List<AvailabilityRangeDto> ranges = index.getAvailability(1L, base, base.plusHours(5));
+
+        assertEquals(List.of(new AvailabilityRangeDto(base, base.plusHours(5), true)), ranges);
+    }
+
+    @Test
+    void getAvailability_whenWindowInPast_thenClampToCurrentHour() {
+        List<AvailabilityRangeDto> ranges = index.getAvailability(4L, base.minusDays(5), base);
+
+        assertEquals(1, ranges.size());
+        assertFalse(ranges.get(0).getStart().isBefore(LocalDateTime.now().truncatedTo(ChronoUnit.HOURS)));
+    }
+
+    @Test
+    void getAvailability_whenBeyondHorizon_thenThrow() {
+        assertThrows(IncorrectParamException.class, () -> index.getAvailability(1L, base, base.plusDays(200)));
+    }
+
+    @Test
+    void getAvailability_whenEmptyWindow_thenThrow() {
+        assertThrows(IncorrectParamException.class, () -> index.getAvailability(1L, base, base));
+    }
+}
@@ -0,0 +1,105 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.dto.BookingForItemDto;
+import ru.practicum.shareit.item.dto.ItemExtendedDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemDetailCacheTest {
+    private final ItemDetailCache cache = new ItemDetailCache(Mockito.mock(PlatformTransactionManager.class),
+            new SimpleMeterRegistry(), 100, 300);
+    private final AtomicInteger loads = new AtomicInteger();
+
+    @Test
+    void getDetails_whenCached_thenLoadOnce() {
+        ItemDetailCache.Details first = cache.getDetails(1L, this::load);
+        ItemDetailCache.Details second = cache.getDetails(1L, this::load);
+
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidate_thenReloadBothViews() {
+        cache.getDetails(1L, this::load);
+        cache.getOwnerView(1L, id -> ownerView(id, null));
+
+        cache.invalidate(1L);
+        cache.getDetails(1L, this::load);
+        cache.getOwnerView(1L, id -> ownerView(id, null));
+
+        assertEquals(4, loads.get());
+    }
+
+    @Test
+    void invalidateOwnerViews_thenKeepDetails() {
+        cache.getDetails(1L, this::load);
+        cache.getOwnerView(1L, id -> ownerView(id, null));
+
+        cache.invalidateOwnerViews(List.of(1L));
+        cache.getDetails(1L, this::load);
+        cache.getOwnerView(1L, id -> ownerView(id, null));
+
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void getOwnerView_whenNextBookingStarted_thenReload() {
+        LocalDateTime started = LocalDateTime.now().minusMinutes(1);
+
+        cache.getOwnerView(1L, id -> ownerView(id, started));
+        cache.getOwnerView(1L, id -> ownerView(id, started));
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void getDetails_whenConcurrentMiss_thenSingleLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<ItemDetailCache.Details> first = CompletableFuture.supplyAsync(() ->
+                cache.getDetails(1L, id -> {
+                    loading.countDown();
+                    await(release);
+                    return load(id);
+                }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        CompletableFuture<ItemDetailCache.Details> second = CompletableFuture.supplyAsync(() ->
+                cache.getDetails(1L, this::load));
+
+        release.countDown();
+
+        assertSame(first.get(5, TimeUnit.SECONDS), second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, loads.get());
+    }
+
+    private ItemDetailCache.Details load(long itemId) {
+        loads.incrementAndGet();
+        return new ItemDetailCache.Details(10L, ItemExtendedDto.builder().id(itemId).build());
+    }
+
+    private ItemExtendedDto ownerView(long itemId, LocalDateTime nextStart) {
+        loads.incrementAndGet();
+        BookingForItemDto next = nextStart == null ? null : BookingForItemDto.builder().start(nextStart).build();
+        return ItemExtendedDto.builder().id(itemId).nextBooking(next).build();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package ru.practicum.shareit.item.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchCacheTest {
+    private final ItemTextSearch itemTextSearch = Mockito.mock(ItemTextSearch.class);
+    private final ItemSearchCache cache = new ItemSearchCache(itemTextSearch, new SimpleMeterRegistry(), 100, 60);
+    private final List<ItemDto> page = List.of(new ItemDto(1L, "Дрель", "Простая дрель", true, null));
+
+    @Test
+    void search_whenTextDiffersOnlyInCase_thenSearchOnceWithOriginalText() {
+        Mockito.when(itemTextSearch.search("Дрель", 0, 10)).thenReturn(page);
+
+        assertEquals(page, cache.search("Дрель", 0, 10));
+        assertEquals(page, cache.search("дРЕЛЬ", 0, 10));
+
+        Mockito.verify(itemTextSearch, Mockito.times(1)).search("Дрель", 0, 10);
+        Mockito.verify(itemTextSearch, Mockito.never()).search("дрель", 0, 10);
+    }
+
+    @Test
+    void search_whenSurroundingSpaces_thenKeepThem() {
+        cache.search("дрель", 0, 10);
+        cache.search(" дрель", 0, 10);
+
+        Mockito.verify(itemTextSearch).search("дрель", 0, 10);
+        Mockito.verify(itemTextSearch).search(" дрель", 0, 10);
+    }
+
+    @Test
+    void search_whenOtherPage_thenSearchAgain() {
+        cache.search("дрель", 0, 10);
+        cache.search("дрель", 10, 10);
+
+        Mockito.verify(itemTextSearch).search("дрель", 0, 10);
+        Mockito.verify(itemTextSearch).search("дрель", 10, 10);
+    }
+
+    @Test
+    void search_whenCatalogChanged_thenSearchAgain() {
+        Mockito.when(itemTextSearch.search("дрель", 0, 10)).thenReturn(List.of(), page);
+
+        assertTrue(cache.search("дрель", 0, 10).isEmpty());
+        cache.catalogChanged();
+
+        assertEquals(page, cache.search("дрель", 0, 10));
+    }
+
+    @Test
+    void search_whenEmptyText_thenEmptyWithoutSearch() {
+        assertTrue(cache.search("", 0, 10).isEmpty());
+
+        Mockito.verifyNoInteractions(itemTextSearch);
+    }
+}
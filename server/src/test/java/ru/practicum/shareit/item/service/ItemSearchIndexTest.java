@@ -0,0 +1,101 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dao.ItemSearchView;
+import ru.practicum.shareit.item.dto.ItemDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+class ItemSearchIndexTest {
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final ItemSearchIndex index = new ItemSearchIndex(itemRepository);
+
+    @BeforeEach
+    void setUp() {
+        index.put(item(1L, "Дрель", "Аккумуляторная дрель", true));
+        index.put(item(2L, "Отвёртка", "Крестовая отвёртка", true));
+        index.put(item(3L, "Дрель ударная", "Сетевая", false));
+        index.put(item(4L, "Перфоратор", "Бьёт как дрель", true));
+    }
+
+    @Test
+    void search_whenSubstringInNameOrDescription_thenAvailableByIdAsc() {
+        assertEquals(List.of(1L, 4L), ids(index.search("ДРЕ", 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("умулятор", 0, 10)));
+        assertEquals(List.of(4L), ids(index.search("как др", 0, 10)));
+    }
+
+    @Test
+    void search_whenShortQuery_thenScanInOrder() {
+        assertEquals(List.of(1L, 2L, 4L), ids(index.search("р", 0, 10)));
+        assertEquals(List.of(2L), ids(index.search("р", 1, 1)));
+    }
+
+    @Test
+    void search_thenOrderByRelevance() {
+        index.put(item(20L, "Ножовка", "Пила по дереву", true));
+        index.put(item(21L, "Пилатес коврик", "Для зала", true));
+        index.put(item(22L, "Электро пила", "Сетевая", true));
+        index.put(item(23L, "Ножи", "Распилка", true));
+
+        assertEquals(List.of(22L, 21L, 20L, 23L), ids(index.search("пила", 0, 10)));
+        assertEquals(List.of(20L, 23L), ids(index.search("пила", 2, 2)));
+    }
+
+    @Test
+    void search_whenNoMatch_thenEmpty() {
+        assertTrue(index.search("пила", 0, 10).isEmpty());
+    }
+
+    @Test
+    void search_whenPageOutOfRange_thenEmptyWithoutHugeHeap() {
+        assertEquals(List.of(1L, 2L, 4L), ids(index.search("р", 0, Integer.MAX_VALUE)));
+        assertEquals(List.of(4L), ids(index.search("р", 2, Integer.MAX_VALUE)));
+        assertTrue(index.search("р", Integer.MAX_VALUE - 5, 10).isEmpty());
+        assertTrue(index.search("р", -1, 10).isEmpty());
+        assertTrue(index.search("р", 0, 0).isEmpty());
+    }
+
+    @Test
+    void put_whenItemChanged_thenReindex() {
+        index.put(item(1L, "Пила", "Ручная", true));
+        index.put(item(3L, "Дрель ударная", "Сетевая", true));
+
+        assertEquals(List.of(3L, 4L), ids(index.search("дрель", 0, 10)));
+        assertEquals(List.of(1L), ids(index.search("пила", 0, 10)));
+    }
+
+    @Test
+    void rebuild_thenLoadInBatches() {
+        ItemSearchView view = Mockito.mock(ItemSearchView.class);
+        Mockito.when(view.getId()).thenReturn(7L);
+        Mockito.when(view.getName()).thenReturn("Стремянка");
+        Mockito.when(view.getDescription()).thenReturn("Три ступени");
+        Mockito.when(view.getAvailable()).thenReturn(true);
+        Mockito.when(itemRepository.findSearchViewsAfter(anyLong(), any())).thenReturn(List.of(view));
+
+        index.rebuild();
+
+        assertEquals(List.of(7L), ids(index.search("ступ", 0, 10)));
+        assertTrue(index.search("дрель", 0, 10).isEmpty());
+        Mockito.verify(itemRepository).findSearchViewsAfter(eq(0L), any());
+    }
+
+    private ItemDto item(long id, String name, String description, boolean available) {
+        return new ItemDto(id, name, description, available, null);
+    }
+
+    private List<Long> ids(List<ItemDto> items) {
+        return items.stream().map(ItemDto::getId).collect(Collectors.toList());
+    }
+}
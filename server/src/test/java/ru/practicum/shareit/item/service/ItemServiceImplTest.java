@@ -7,7 +7,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
-import org.springframework.data.domain.PageImpl;
+import ru.practicum.shareit.booking.dao.AdjacentBooking;
+import ru.practicum.shareit.booking.dao.BookingArchiveRepository;
 import ru.practicum.shareit.booking.dao.BookingRepository;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
@@ -52,15 +53,24 @@ class ItemServiceImplTest {
     @MockBean
     private BookingRepository bookingRepository;
 
+    @MockBean
+    private BookingArchiveRepository bookingArchiveRepository;
+
     @MockBean
     private CommentRepository commentRepository;
 
     @MockBean
     private RequestRepository requestRepository;
 
+    @MockBean
+    private ItemTextSearch itemTextSearch;
+
     @Autowired
     private ItemServiceImpl itemService;
 
+    @Autowired
+    private ItemDetailCache itemDetailCache;
+
     @SpyBean
     ItemMapper itemMapper;
 
@@ -172,6 +182,7 @@ class ItemServiceImplTest {
         ItemDto result = itemService.updateItem(1L, itemDto, 1L);
 
         assertEquals(item.getName(), result.getName());
+        Mockito.verify(itemTextSearch).put(result);
     }
 
     @Test
@@ -195,20 +206,42 @@ class ItemServiceImplTest {
 
     @Test
     void getItemById() {
+        itemDetailCache.invalidate(1L);
         User user = User.builder().id(1L).build();
-        Booking booking = Booking.builder()
-                .build();
+        LocalDateTime start = LocalDateTime.now().plusDays(1);
+        item.setId(1L);
         item.setOwner(user);
         Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
-        Mockito.when(bookingRepository.findFirstByItemIdAndStartAfterAndStatusOrderByStartAsc(1L, LocalDateTime.now(), BookingStatus.APPROVED))
-                .thenReturn(Optional.of(booking));
-        Mockito.when(bookingRepository.findFirstByItemIdAndStartBeforeAndStatusOrderByStartDesc(1L, LocalDateTime.now(), BookingStatus.APPROVED))
-                .thenReturn(Optional.of(booking));
-        Mockito.when(commentRepository.findAllByItemId(anyLong())).thenReturn(List.of());
+        Mockito.when(bookingRepository.findLastAndNextApproved(any(), any()))
+                .thenReturn(List.of(new AdjacentBooking(5L, 1L, 2L, start, start.plusDays(1), true)));
+        Mockito.when(commentRepository.findViewsByItemIdIn(any())).thenReturn(List.of());
 
         ItemExtendedDto result = itemService.getItemById(1L, 1L);
 
         assertEquals(item.getDescription(), result.getDescription());
+        assertEquals(5L, result.getNextBooking().getId());
+        assertEquals(BookingStatus.APPROVED, result.getNextBooking().getStatus());
+        assertNull(result.getLastBooking());
+    }
+
+    @Test
+    void getItemById_whenCached_thenNoRepositoryCalls() {
+        itemDetailCache.invalidate(1L);
+        item.setId(1L);
+        item.setOwner(User.builder().id(1L).build());
+        Mockito.when(itemRepository.findById(1L)).thenReturn(Optional.of(item));
+        Mockito.when(commentRepository.findViewsByItemIdIn(any())).thenReturn(List.of());
+
+        ItemExtendedDto first = itemService.getItemById(1L, 2L);
+        ItemExtendedDto second = itemService.getItemById(1L, 2L);
+        itemService.getItemById(1L, 1L);
+        itemService.getItemById(1L, 1L);
+
+        assertSame(first, second);
+        assertNull(first.getNextBooking());
+        Mockito.verify(itemRepository, Mockito.times(1)).findById(1L);
+        Mockito.verify(commentRepository, Mockito.times(1)).findViewsByItemIdIn(any());
+        Mockito.verify(bookingRepository, Mockito.times(1)).findLastAndNextApproved(any(), any());
     }
 
     @Test
@@ -220,15 +253,18 @@ class ItemServiceImplTest {
         List<ItemExtendedDto> result = itemService.getUserItems(1L, 0, 10);
 
         assertEquals(1, result.size());
+        Mockito.verify(bookingRepository, Mockito.times(1)).findLastAndNextApproved(any(), any());
+        Mockito.verify(commentRepository, Mockito.times(1)).findViewsByItemIdIn(any());
     }
 
     @Test
     void searchItemsByName() {
-        Mockito.when(itemRepository.searchByText(any(), any())).thenReturn(new PageImpl<>(List.of(item)));
+        Mockito.when(itemTextSearch.search("some txt", 2, 2)).thenReturn(List.of(itemDto));
 
-        List<ItemDto> result = itemService.searchItemsByName("some txt", 1L, 0, 1);
+        List<ItemDto> result = itemService.searchItemsByName("some txt", 1L, 3, 2);
 
         assertTrue(result.size() == 1);
+        Mockito.verifyNoInteractions(itemRepository);
     }
 
     @Test
@@ -276,4 +312,22 @@ class ItemServiceImplTest {
 
         assertEquals("Вещь не была арендована", exception.getMessage());
     }
-}
\ No newline at end of file
+
+    @Test
+    void addComment_whenBookingArchived_thenSave() {
+        CommentDto commentDto = CommentDto.builder()
+                .text("comment text")
+                .build();
+        Comment comment = new Comment();
+        comment.setText("commentText");
+
+        Mockito.when(bookingArchiveRepository.existsByBookerIdAndItemIdAndEndBefore(anyLong(), anyLong(), any())).thenReturn(true);
+        Mockito.when(userRepository.findById(anyLong())).thenReturn(Optional.of(User.builder().id(1L).build()));
+        Mockito.when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        Mockito.when(commentRepository.saveAndFlush(any(Comment.class))).thenReturn(comment);
+
+        CommentDto result = itemService.addComment(1L, 1L, commentDto);
+
+        assertEquals("commentText", result.getText());
+    }
+}
@@ -0,0 +1,80 @@
+package ru.practicum.shareit.item.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.item.dao.ItemRepository;
+import ru.practicum.shareit.item.dao.ItemSearchView;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSuggestionDto;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+
+class ItemSuggestIndexTest {
+    private final ItemRepository itemRepository = Mockito.mock(ItemRepository.class);
+    private final ItemSuggestIndex index = new ItemSuggestIndex(itemRepository, 2);
+
+    @BeforeEach
+    void setUp() {
+        index.put(item(1L, "Дрель ударная", true));
+        index.put(item(2L, "Дрель", true));
+        index.put(item(3L, "Дрезина", true));
+        index.put(item(4L, "Дрель-шуруповёрт", false));
+        index.put(item(5L, "Ударный гайковёрт", true));
+    }
+
+    @Test
+    void suggest_thenMostPopularFirst() {
+        assertEquals(List.of(new ItemSuggestionDto("дрель", 2), new ItemSuggestionDto("дрезина", 1)),
+                index.suggest(" ДР"));
+        assertEquals(List.of(new ItemSuggestionDto("ударный", 1), new ItemSuggestionDto("ударная", 1)),
+                index.suggest("удар"));
+        assertEquals(List.of(new ItemSuggestionDto("дрель", 2)), index.suggest("дрель"));
+    }
+
+    @Test
+    void suggest_whenNoMatchOrBlank_thenEmpty() {
+        assertTrue(index.suggest("шуруп").isEmpty());
+        assertTrue(index.suggest("пила").isEmpty());
+        assertTrue(index.suggest("  ").isEmpty());
+    }
+
+    @Test
+    void put_whenRenamedOrUnavailable_thenUpdateCounts() {
+        index.put(item(1L, "Перфоратор", true));
+        index.put(item(3L, "Дрезина", false));
+
+        assertEquals(List.of(new ItemSuggestionDto("дрель", 1)), index.suggest("др"));
+        assertEquals(List.of(new ItemSuggestionDto("перфоратор", 1)), index.suggest("п"));
+        assertEquals(List.of(new ItemSuggestionDto("ударный", 1)), index.suggest("удар"));
+    }
+
+    @Test
+    void rebuild_thenLoadAvailableItems() {
+        ItemSearchView view = Mockito.mock(ItemSearchView.class);
+        Mockito.when(view.getId()).thenReturn(7L);
+        Mockito.when(view.getName()).thenReturn("Стремянка");
+        Mockito.when(view.getAvailable()).thenReturn(true);
+        Mockito.when(itemRepository.findSearchViewsAfter(anyLong(), any())).thenReturn(List.of(view));
+
+        index.rebuild();
+
+        assertEquals(List.of(new ItemSuggestionDto("стремянка", 1)), index.suggest("стр"));
+        assertTrue(index.suggest("др").isEmpty());
+    }
+
+    @Test
+    void words_thenSplitOnNonLetters() {
+        assertEquals(Set.of("дрель", "шуруповёрт", "18в"), ItemSuggestIndex.words("Дрель-шуруповёрт, 18В"));
+    }
+
+    private ItemDto item(long id, String name, boolean available) {
+        return new ItemDto(id, name, "description", available, null);
+    }
+}
@@ -0,0 +1,120 @@
+package ru.practicum.shareit.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.SneakyThrows;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.booking.event.BookingEvent;
+import ru.practicum.shareit.booking.event.BookingEventBus;
+import ru.practicum.shareit.booking.event.BookingEventType;
+import ru.practicum.shareit.outbox.dao.DeadLetterEventRepository;
+import ru.practicum.shareit.outbox.dao.OutboxEventRepository;
+import ru.practicum.shareit.outbox.model.DeadLetterEvent;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+
+class OutboxRelayTest {
+    private final OutboxEventRepository outboxEventRepository = Mockito.mock(OutboxEventRepository.class);
+    private final DeadLetterEventRepository deadLetterEventRepository = Mockito.mock(DeadLetterEventRepository.class);
+    private final BookingEventBus bookingEventBus = Mockito.mock(BookingEventBus.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final OutboxRelay relay = new OutboxRelay(outboxEventRepository, deadLetterEventRepository, bookingEventBus,
+            objectMapper, Mockito.mock(PlatformTransactionManager.class), 10, 3, 1000);
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void drain_thenDeliverPerItemInOrderAndDelete() {
+        Mockito.when(outboxEventRepository.findBatch(any(), any()))
+                .thenReturn(List.of(event(1L, 10L), event(2L, 20L), event(3L, 10L)));
+        Mockito.when(bookingEventBus.deliver(anyLong(), anyList()))
+                .thenAnswer(invocation -> delivered(invocation.<List<?>>getArgument(1).size(), null));
+
+        relay.drain();
+
+        Mockito.verify(bookingEventBus).deliver(eq(10L), Mockito.<List<BookingEvent>>argThat(events ->
+                events.size() == 2 && events.get(0).getBookingId() == 1L && events.get(1).getBookingId() == 3L));
+        Mockito.verify(bookingEventBus).deliver(eq(20L), anyList());
+        Mockito.verify(outboxEventRepository).deleteByIdIn(List.of(1L, 3L, 2L));
+    }
+
+    @Test
+    void drain_whenListenerFails_thenPostponeHeadAndKeepRest() {
+        OutboxEvent first = event(1L, 10L);
+        Mockito.when(outboxEventRepository.findBatch(any(), any())).thenReturn(List.of(first, event(2L, 10L)));
+        Mockito.when(bookingEventBus.deliver(anyLong(), anyList())).thenReturn(delivered(0, "boom"));
+
+        relay.drain();
+
+        assertEquals(1, first.getAttempts());
+        assertTrue(first.getNextAttemptAt().isAfter(now));
+        Mockito.verify(outboxEventRepository).saveAll(List.of(first));
+        Mockito.verify(outboxEventRepository, Mockito.never()).deleteByIdIn(any());
+    }
+
+    @Test
+    void drain_whenHeadIsPostponed_thenSkipItem() {
+        OutboxEvent postponed = event(1L, 10L);
+        postponed.setNextAttemptAt(now.plusMinutes(1));
+        Mockito.when(outboxEventRepository.findBatch(any(), any())).thenReturn(List.of(postponed, event(2L, 10L)));
+
+        relay.drain();
+
+        Mockito.verify(bookingEventBus, Mockito.never()).deliver(anyLong(), anyList());
+    }
+
+    @Test
+    void drain_whenAttemptsExhausted_thenMoveToDeadLetters() {
+        OutboxEvent failing = event(1L, 10L);
+        failing.setAttempts(2);
+        Mockito.when(outboxEventRepository.findBatch(any(), any())).thenReturn(List.of(failing));
+        Mockito.when(bookingEventBus.deliver(anyLong(), anyList())).thenReturn(delivered(0, "boom"));
+
+        relay.drain();
+
+        Mockito.verify(outboxEventRepository).deleteByIdIn(List.of(1L));
+        Mockito.verify(deadLetterEventRepository).saveAll(Mockito.<List<DeadLetterEvent>>argThat(dead ->
+                dead.size() == 1 && dead.get(0).getAttempts() == 3 && "boom".equals(dead.get(0).getError())));
+    }
+
+    @Test
+    void drain_whenPayloadUnreadable_thenDeadLetterItAtOnce() {
+        OutboxEvent broken = event(2L, 10L);
+        broken.setPayload("{");
+        Mockito.when(outboxEventRepository.findBatch(any(), any())).thenReturn(List.of(event(1L, 10L), broken));
+        Mockito.when(bookingEventBus.deliver(anyLong(), anyList())).thenReturn(delivered(1, null));
+
+        relay.drain();
+
+        Mockito.verify(outboxEventRepository).deleteByIdIn(List.of(1L, 2L));
+        Mockito.verify(deadLetterEventRepository).saveAll(Mockito.<List<DeadLetterEvent>>argThat(dead ->
+                dead.size() == 1 && dead.get(0).getId() == 2L));
+    }
+
+    private CompletableFuture<BookingEventBus.Delivery> delivered(int count, String error) {
+        return CompletableFuture.completedFuture(new BookingEventBus.Delivery(count, error));
+    }
+
+    @SneakyThrows
+    private OutboxEvent event(Long id, Long itemId) {
+        BookingEvent event = new BookingEvent(id, itemId, BookingEventType.CREATED, now);
+        return OutboxEvent.builder()
+                .id(id)
+                .itemId(itemId)
+                .type(event.getType().name())
+                .payload(objectMapper.writeValueAsString(event))
+                .created(now)
+                .nextAttemptAt(now)
+                .build();
+    }
+}
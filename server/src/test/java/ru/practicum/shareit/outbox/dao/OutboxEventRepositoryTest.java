@@ -0,0 +1,47 @@
+package ru.practicum.shareit.outbox.dao;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.outbox.model.OutboxEvent;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest
+class OutboxEventRepositoryTest {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    private final LocalDateTime now = LocalDateTime.now();
+
+    @Test
+    void findBatch_whenItemInBackoff_thenSkipItsEventsAndTakeOthers() {
+        save(10L, now.plusMinutes(1));
+        save(10L, now);
+        save(10L, now);
+        OutboxEvent other = save(20L, now);
+        OutboxEvent retried = save(30L, now.minusSeconds(1));
+
+        List<Long> ids = outboxEventRepository.findBatch(now, PageRequest.of(0, 2)).stream()
+                .map(OutboxEvent::getId)
+                .collect(Collectors.toList());
+
+        assertEquals(List.of(other.getId(), retried.getId()), ids);
+    }
+
+    private OutboxEvent save(Long itemId, LocalDateTime nextAttemptAt) {
+        return outboxEventRepository.save(OutboxEvent.builder()
+                .itemId(itemId)
+                .type("CREATED")
+                .payload("{}")
+                .created(now)
+                .nextAttemptAt(nextAttemptAt)
+                .build());
+    }
+}
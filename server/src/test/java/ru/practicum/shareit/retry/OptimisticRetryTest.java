@@ -0,0 +1,61 @@
+package ru.practicum.shareit.retry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import ru.practicum.shareit.exceptions.ConcurrentUpdateException;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OptimisticRetry retry = new OptimisticRetry(Mockito.mock(PlatformTransactionManager.class),
+            meterRegistry, 3, 1, 2);
+
+    @Test
+    void execute_whenConflictThenSuccess_thenRetryAndCount() {
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute("test", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw new ObjectOptimisticLockingFailureException(User.class, 1L);
+            }
+            return "done";
+        });
+
+        assertEquals("done", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, meterRegistry.counter("shareit.optimistic.conflicts", "operation", "test").count());
+    }
+
+    @Test
+    void execute_whenAlwaysConflict_thenThrow() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ConcurrentUpdateException.class, () -> retry.execute("test", () -> {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException(User.class, 1L);
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.counter("shareit.optimistic.exhausted", "operation", "test").count());
+    }
+
+    @Test
+    void execute_whenOtherException_thenNoRetry() {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> retry.execute("test", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+
+        assertEquals(1, calls.get());
+    }
+}
@@ -0,0 +1,57 @@
+package ru.practicum.shareit.user.dao;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import ru.practicum.shareit.user.model.User;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.save(User.builder().name("name").email("user@mail.com").build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findByEmail() {
+        Optional<User> found = userRepository.findByEmail("user@mail.com");
+
+        assertTrue(found.isPresent());
+        assertEquals(user.getId(), found.get().getId());
+        assertTrue(userRepository.findByEmail("other@mail.com").isEmpty());
+    }
+
+    @Test
+    void findById_whenLoadedBefore_thenSecondLevelCacheHit() {
+        Statistics statistics = entityManager.getEntityManager().getEntityManagerFactory()
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+        userRepository.findById(user.getId());
+        entityManager.clear();
+        long hits = statistics.getSecondLevelCacheHitCount();
+
+        userRepository.findById(user.getId());
+
+        assertEquals(hits + 1, statistics.getSecondLevelCacheHitCount());
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.boot.test.mock.mockito.SpyBean;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import ru.practicum.shareit.exceptions.EmailBelongsToOtherUserException;
 import ru.practicum.shareit.exceptions.EntityNotFoundException;
 import ru.practicum.shareit.user.dao.UserRepository;
@@ -83,7 +84,7 @@ class UserServiceImplTest {
     @Test
     void updateUser() {
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        Mockito.when(userRepository.findAll()).thenReturn(List.of());
+        Mockito.when(userRepository.findByEmail(any())).thenReturn(Optional.empty());
         Mockito.when(userRepository.save(any(User.class))).thenReturn(user);
 
         UserDto result = userService.updateUser(1, userDto);
@@ -91,6 +92,20 @@ class UserServiceImplTest {
         assertEquals(user.getName(), result.getName());
     }
 
+    @Test
+    void updateUser_whenVersionConflict_thenRetry() {
+        Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
+        Mockito.when(userRepository.findByEmail(any())).thenReturn(Optional.empty());
+        Mockito.when(userRepository.save(any(User.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(User.class, 1L))
+                .thenReturn(user);
+
+        UserDto result = userService.updateUser(1, userDto);
+
+        assertEquals(user.getName(), result.getName());
+        Mockito.verify(userRepository, Mockito.times(2)).findById(1L);
+    }
+
     @Test
     void updateUser_whenEmailInUse_thenThrow() {
         User user2 = User.builder()
@@ -98,7 +113,7 @@ class UserServiceImplTest {
                 .email("newMail")
                 .build();
         Mockito.when(userRepository.findById(1L)).thenReturn(Optional.of(user));
-        Mockito.when(userRepository.findAll()).thenReturn(List.of(user2));
+        Mockito.when(userRepository.findByEmail("newMail")).thenReturn(Optional.of(user2));
         userDto.setEmail("newMail");
         Exception exception = assertThrows(
                 EmailBelongsToOtherUserException.class,